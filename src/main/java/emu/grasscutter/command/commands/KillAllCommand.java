@@ -5,6 +5,7 @@ import emu.grasscutter.command.CommandHandler;
 import emu.grasscutter.game.entity.EntityMonster;
 import emu.grasscutter.game.entity.GameEntity;
 import emu.grasscutter.game.player.Player;
+import emu.grasscutter.game.props.EntityIdType;
 import emu.grasscutter.game.world.Scene;
 
 import java.util.List;
@@ -38,7 +39,7 @@ public final class KillAllCommand implements CommandHandler {
 
         // Separate into list to avoid concurrency issue
         final Scene sceneF = scene;
-        List<GameEntity> toKill = sceneF.getEntities().values().stream()
+        List<GameEntity> toKill = sceneF.getEntitiesByType(EntityIdType.MONSTER).stream()
                 .filter(entity -> entity instanceof EntityMonster)
                 .toList();
         toKill.forEach(entity -> sceneF.killEntity(entity, 0));
@@ -9,7 +9,6 @@ import emu.grasscutter.game.player.Player;
 
 import java.util.HashMap;
 import java.util.List;
-import java.util.Objects;
 
 import static emu.grasscutter.utils.Language.translate;
 
@@ -79,10 +78,7 @@ public final class SendMailCommand implements CommandHandler {
                                 Grasscutter.getGameServer().getPlayerByUid(mailBuilder.recipient, true).sendMail(mailBuilder.mail);
                                 CommandHandler.sendMessage(sender, translate(sender, "commands.sendMail.send_done", mailBuilder.recipient));
                             } else {
-                                DatabaseHelper.getByGameClass(Player.class).forEach(player -> {
-                                    var onlinePlayer = Grasscutter.getGameServer().getPlayerByUid(player.getUid(), false);
-                                    Objects.requireNonNullElse(onlinePlayer, player).sendMail(mailBuilder.mail);
-                                });
+                                Grasscutter.getGameServer().getMailSystem().broadcast(mailBuilder.mail);
                                 CommandHandler.sendMessage(sender, translate(sender, "commands.sendMail.send_all_done"));
                             }
                             mailBeingConstructed.remove(senderId);
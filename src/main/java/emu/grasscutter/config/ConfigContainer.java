@@ -5,6 +5,7 @@ import com.google.gson.JsonObject;
 import emu.grasscutter.Grasscutter;
 import emu.grasscutter.Grasscutter.ServerDebugMode;
 import emu.grasscutter.Grasscutter.ServerRunMode;
+import emu.grasscutter.data.ResourceDomain;
 import emu.grasscutter.utils.JsonUtils;
 
 import java.util.Set;
@@ -75,6 +76,19 @@ public class ConfigContainer {
         public DataStore server = new DataStore();
         public DataStore game = new DataStore();
 
+        /* Where data is stored: "mongodb", or "embedded" for a local file (single server only) */
+        public String backend = "mongodb";
+        public String embeddedFile = "./grasscutter.mv.db";
+
+        /* Game documents are written in batches this often (milliseconds, 0 = write every save immediately) */
+        public int writeBehindInterval = 1000;
+        /* Number of threads which write batched documents */
+        public int writeBehindThreads = 2;
+        /* Only write the changed fields of player documents, instead of replacing the whole document */
+        public boolean partialPlayerUpdates = true;
+        /* Number of ids reserved from the database at a time, per id counter */
+        public int idBlockSize = 1000;
+
         public static class DataStore {
             public String connectionUri = "mongodb://localhost:27017";
             public String collection = "grasscutter";
@@ -97,6 +111,10 @@ public class ConfigContainer {
         public Set<Integer> debugBlacklist = Set.of();
         public ServerRunMode runMode = ServerRunMode.HYBRID;
         public boolean logCommands = false;
+        /* Keeps a binary snapshot of the loaded resources in cache/, so later starts don't parse them again */
+        public boolean cacheResources = true;
+        /* Resources to load on first use rather than at startup: HOMEWORLD, QUESTS, NPC_BORN, MUSIC_GAME */
+        public Set<ResourceDomain> lazyResources = Set.of();
 
         public HTTP http = new HTTP();
         public Game game = new Game();
@@ -150,6 +168,17 @@ public class ConfigContainer {
 
         /* Kcp internal work interval (milliseconds) */
         public int kcpInterval = 20;
+        /* Number of threads which handle game logic, sessions are spread across them (0 = one per CPU core) */
+        public int logicThreads = 0;
+        /* Milliseconds between two ticks of each world, which run in parallel on the logic threads (may be below 1000) */
+        /* No stage of a world tick can run more often than this, see tickStages */
+        public int worldTickInterval = 200;
+        /* Milliseconds between two ticks of each player, run on the player's logic thread (may be below 1000) */
+        public int playerTickInterval = 1000;
+        /* Number of logins whose player data is loaded at the same time (0 = one per CPU core) */
+        public int loginLoadConcurrency = 0;
+        /* Memory budget for cached profiles of offline players, in kilobytes (0 = no caching) */
+        public int offlineProfileCacheSize = 8192;
         /* Controls whether packets should be logged in console or not */
         public ServerDebugMode logPackets = ServerDebugMode.NONE;
         /* Show packet payload in console or no (in any case the payload is shown in encrypted view) */
@@ -160,6 +189,7 @@ public class ConfigContainer {
         public GameOptions gameOptions = new GameOptions();
         public JoinOptions joinOptions = new JoinOptions();
         public ConsoleAccount serverAccount = new ConsoleAccount();
+        public TickStages tickStages = new TickStages();
     }
 
     /* Data containers. */
@@ -274,6 +304,24 @@ public class ConfigContainer {
         }
     }
 
+    /* How often each part of the world and player ticks runs, in ticks per second, and how many milliseconds it may take. */
+    public static class TickStages {
+        /* Entities entering and leaving the players' view */
+        public TickStage visibility = new TickStage(1f, 20);
+        /* Loading and unloading blocks and spawns around the players */
+        public TickStage blocks = new TickStage(1f, 50);
+        /* Region enter and leave triggers */
+        public TickStage regions = new TickStage(5f, 10);
+        public TickStage challenges = new TickStage(1f, 5);
+        public TickStage blossoms = new TickStage(1f, 5);
+        public TickStage npcGroups = new TickStage(1f, 10);
+        /* Ping check, co-op requests, buffs and RTT and location notifies */
+        public TickStage playerSync = new TickStage(1f, 10);
+        /* Daily reset, expeditions and forging */
+        public TickStage playerProgress = new TickStage(1f, 10);
+        public TickStage resin = new TickStage(0.1f, 5);
+    }
+
     public static class ConsoleAccount {
         public int avatarId = 10000007;
         public int nameCardId = 210001;
@@ -291,6 +339,18 @@ public class ConfigContainer {
 
     /* Objects. */
 
+    public static class TickStage {
+        public TickStage() { }
+
+        public TickStage(float rate, int budget) {
+            this.rate = rate;
+            this.budget = budget;
+        }
+
+        public float rate = 1f;
+        public int budget = 10;
+    }
+
     public static class Region {
         public Region() { }
 
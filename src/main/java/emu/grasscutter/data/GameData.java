@@ -25,7 +25,7 @@ import lombok.experimental.Tolerate;
 
 public class GameData {
     // BinOutputs
-    @Getter private static final Int2ObjectMap<HomeworldDefaultSaveData> homeworldDefaultSaveData = new Int2ObjectOpenHashMap<>();
+    private static final Int2ObjectMap<HomeworldDefaultSaveData> homeworldDefaultSaveData = new Int2ObjectOpenHashMap<>();
     @Getter private static final Int2ObjectMap<String> abilityHashes = new Int2ObjectOpenHashMap<>();
     @Deprecated(forRemoval = true)
     @Getter private static final Map<String, AbilityModifierEntry> abilityModifiers = new HashMap<>();
@@ -86,7 +86,7 @@ public class GameData {
     @Getter private static final Int2ObjectMap<MonsterCurveData> monsterCurveDataMap = new Int2ObjectOpenHashMap<>();
     @Getter private static final Int2ObjectMap<MonsterData> monsterDataMap = new Int2ObjectOpenHashMap<>();
     @Getter private static final Int2ObjectMap<MonsterDescribeData> monsterDescribeDataMap = new Int2ObjectOpenHashMap<>();
-    @Getter private static final Int2ObjectMap<MusicGameBasicData> musicGameBasicDataMap = new Int2ObjectOpenHashMap<>();
+    private static final Int2ObjectMap<MusicGameBasicData> musicGameBasicDataMap = new Int2ObjectOpenHashMap<>();
     @Getter private static final Int2ObjectMap<NpcData> npcDataMap = new Int2ObjectOpenHashMap<>();
     @Getter private static final Int2ObjectMap<OpenStateData> openStateDataMap = new Int2ObjectOpenHashMap<>();
     @Getter private static final Int2ObjectMap<PersonalLineData> personalLineDataMap = new Int2ObjectOpenHashMap<>();
@@ -136,9 +136,13 @@ public class GameData {
     @Deprecated(forRemoval = true) @Tolerate public static ArrayList<CodexReliquaryData> getcodexReliquaryArrayList() {return codexReliquaryArrayList;}
 
     // Getters with different names that stay for now
-    public static Int2ObjectMap<MainQuestData> getMainQuestDataMap() {return mainQuestData;}
-    public static Int2ObjectMap<QuestEncryptionKey> getMainQuestEncryptionMap() {return questsKeys;}
-    public static Int2ObjectMap<SceneNpcBornData> getSceneNpcBornData() {return npcBornData;}
+    public static Int2ObjectMap<MainQuestData> getMainQuestDataMap() {ResourceDomain.QUESTS.ensureLoaded(); return mainQuestData;}
+    public static Int2ObjectMap<QuestEncryptionKey> getMainQuestEncryptionMap() {ResourceDomain.QUESTS.ensureLoaded(); return questsKeys;}
+    public static Int2ObjectMap<SceneNpcBornData> getSceneNpcBornData() {ResourceDomain.NPC_BORN.ensureLoaded(); return npcBornData;}
+
+    // Getters of domains which may be loaded on first use, see ResourceDomain
+    public static Int2ObjectMap<HomeworldDefaultSaveData> getHomeworldDefaultSaveData() {ResourceDomain.HOMEWORLD.ensureLoaded(); return homeworldDefaultSaveData;}
+    public static Int2ObjectMap<MusicGameBasicData> getMusicGameBasicDataMap() {ResourceDomain.MUSIC_GAME.ensureLoaded(); return musicGameBasicDataMap;}
     public static Map<String, AbilityEmbryoEntry> getAbilityEmbryoInfo() {return abilityEmbryos;}
 
     // Getters that get values rather than containers. If Lombok ever gets syntactic sugar for this, we should adopt that.
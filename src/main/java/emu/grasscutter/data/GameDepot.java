@@ -15,6 +15,8 @@ import emu.grasscutter.game.world.SpawnDataEntry;
 import emu.grasscutter.utils.WeightedList;
 import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
 import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -26,7 +28,8 @@ public class GameDepot {
     private static Int2ObjectMap<List<ReliquaryAffixData>> relicAffixDepot = new Int2ObjectOpenHashMap<>();
 
     @Getter @Setter private static Map<String, AvatarConfig> playerAbilities = new HashMap<>();
-    @Getter private static HashMap<SpawnDataEntry.GridBlockId, ArrayList<SpawnDataEntry>> spawnLists = new HashMap<>();
+    /* Keyed by SpawnDataEntry.GridBlockId.toKey */
+    @Getter private static Long2ObjectMap<List<SpawnDataEntry>> spawnLists = new Long2ObjectOpenHashMap<>();
     @Getter @Setter private static BlossomConfig blossomConfig;
 
     public static void load() {
@@ -68,7 +71,7 @@ public class GameDepot {
         return relicAffixDepot.get(depot);
     }
 
-    public static void addSpawnListById(HashMap<SpawnDataEntry.GridBlockId, ArrayList<SpawnDataEntry>> data) {
+    public static void addSpawnListById(Long2ObjectMap<List<SpawnDataEntry>> data) {
         spawnLists.putAll(data);
     }
 }
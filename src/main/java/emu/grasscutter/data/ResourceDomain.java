@@ -0,0 +1,98 @@
+package emu.grasscutter.data;
+
+import static emu.grasscutter.config.Configuration.SERVER;
+
+import java.util.List;
+
+import emu.grasscutter.Grasscutter;
+import emu.grasscutter.data.excels.MusicGameBasicData;
+import lombok.Getter;
+
+/**
+ * Resources which are only needed by some features, and can be loaded the first time they are used
+ * instead of at startup. Which ones are loaded lazily is set by {@code server.lazyResources}.
+ */
+public enum ResourceDomain {
+    HOMEWORLD(ResourceLoader::loadHomeworldDefaultSaveData),
+    QUESTS(ResourceLoader::loadQuests),
+    NPC_BORN(ResourceLoader::loadNpcBornData),
+    MUSIC_GAME(MusicGameBasicData.class);
+
+    private final Runnable loader;
+    /* Excel resources of this domain, which ResourceLoader.loadResources leaves out. */
+    private final List<Class<?>> resources;
+    private volatile boolean loaded = false;
+
+    /* How long the first use of a lazy domain waited for it to load, in nanoseconds, -1 if that did not happen. */
+    @Getter private volatile long firstUseLatency = -1;
+
+    ResourceDomain(Runnable loader) {
+        this.loader = loader;
+        this.resources = List.of();
+    }
+
+    ResourceDomain(Class<?>... resources) {
+        this.resources = List.of(resources);
+        this.loader = () -> this.resources.forEach(ResourceLoader::loadResource);
+    }
+
+    public boolean isLazy() {
+        return SERVER.lazyResources.contains(this);
+    }
+
+    public boolean isLoaded() {
+        return this.loaded;
+    }
+
+    /**
+     * @return Whether the domain consists of excel resources, rather than having its own loader.
+     */
+    boolean hasResources() {
+        return !this.resources.isEmpty();
+    }
+
+    /**
+     * Loads the domain right away, unless it already is.
+     */
+    void load() {
+        if (this.loaded) return;
+        synchronized (this) {
+            if (this.loaded) return;
+            this.loader.run();
+            this.loaded = true;
+        }
+    }
+
+    /**
+     * Loads the domain if it is not loaded yet. Every getter of its data calls this first.
+     */
+    void ensureLoaded() {
+        // The loader itself goes through the getters too.
+        if (this.loaded || Thread.holdsLock(this)) return;
+
+        long start = System.nanoTime();
+        synchronized (this) {
+            if (this.loaded) return;  // Someone else was first.
+            this.loader.run();
+            this.loaded = true;
+        }
+        this.firstUseLatency = System.nanoTime() - start;
+        Grasscutter.getLogger().debug("Loaded {} resources on first use in {} ms.", this, this.firstUseLatency / 1_000_000);
+    }
+
+    /**
+     * Marks the domain as loaded, when its data was filled in some other way.
+     */
+    void markLoaded() {
+        this.loaded = true;
+    }
+
+    static ResourceDomain ofResource(Class<?> resourceDefinition) {
+        for (ResourceDomain domain : values()) {
+            if (domain.resources.contains(resourceDefinition)) {
+                return domain;
+            }
+        }
+        return null;
+    }
+}
@@ -8,31 +8,46 @@ import emu.grasscutter.data.common.PointData;
 import emu.grasscutter.game.managers.blossom.BlossomConfig;
 import emu.grasscutter.game.quest.QuestEncryptionKey;
 import emu.grasscutter.game.world.SpawnDataEntry;
-import emu.grasscutter.game.world.SpawnDataEntry.GridBlockId;
 import emu.grasscutter.game.world.SpawnDataEntry.SpawnGroupEntry;
 import emu.grasscutter.scripts.SceneIndexManager;
 import emu.grasscutter.utils.JsonUtils;
 import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
 import it.unimi.dsi.fastutil.ints.IntArrayList;
 import it.unimi.dsi.fastutil.ints.IntArraySet;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
 import lombok.val;
 
 import org.reflections.Reflections;
 
 import java.io.*;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.regex.Pattern;
 import java.util.stream.Stream;
 
+import static emu.grasscutter.config.Configuration.SERVER;
 import static emu.grasscutter.utils.FileUtils.getDataPath;
 import static emu.grasscutter.utils.FileUtils.getResourcePath;
 import static emu.grasscutter.utils.Language.translate;
 
 public class ResourceLoader {
 
-    private static final List<String> loadedResources = new ArrayList<>();
+    /* Lazy domains add to it from whichever thread uses them first. */
+    private static final Set<String> loadedResources = ConcurrentHashMap.newKeySet();
+
+    /* Parses resource files in parallel. */
+    private static final ForkJoinPool loaderPool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+    /* Time spent parsing each file, in nanoseconds. */
+    private static final Map<String, Long> fileLoadTimes = new ConcurrentHashMap<>();
 
     public static List<Class<?>> getResourceDefClasses() {
         Reflections reflections = new Reflections(ResourceLoader.class.getPackage().getName());
@@ -55,75 +70,189 @@ public class ResourceLoader {
     public static void loadAll() {
         if (loadedAll) return;
         Grasscutter.getLogger().info(translate("messages.status.resources.loading"));
+        long start = System.nanoTime();
+
+        if (SERVER.cacheResources && ResourceSnapshot.restore()) {
+            getResourceDefClasses().forEach(c -> loadedResources.add(c.getSimpleName()));
+            // The snapshot is taken right after startup, so it only holds the eager domains
+            Arrays.stream(ResourceDomain.values()).filter(domain -> !domain.isLazy()).forEach(ResourceDomain::markLoaded);
+            Grasscutter.getLogger().debug("Restored resources from snapshot in {} ms.", (System.nanoTime() - start) / 1_000_000);
+            Grasscutter.getLogger().info(translate("messages.status.resources.finish"));
+            loadedAll = true;
+            return;
+        }
 
-        // Load ability lists
-        loadAbilityEmbryos();
-        loadOpenConfig();
-        loadAbilityModifiers();
-        // Load resources
+        // Nothing else depends on these, so they load alongside everything below
+        // Lazy domains are left for their first use
+        CompletableFuture<Void> independent = CompletableFuture.allOf(Stream.concat(
+            Stream.of(runAsync(ResourceLoader::loadGadgetConfigData), runAsync(ResourceLoader::loadScriptSceneData)),
+            Arrays.stream(ResourceDomain.values())
+                .filter(domain -> !domain.isLazy() && !domain.hasResources())
+                .map(domain -> runAsync(domain::load))
+        ).toArray(CompletableFuture[]::new));
+        // Load ability lists - resources read them when loaded
+        CompletableFuture.allOf(
+            runAsync(ResourceLoader::loadAbilityEmbryos),
+            runAsync(ResourceLoader::loadOpenConfig),
+            runAsync(ResourceLoader::loadAbilityModifiers)).join();
+        // Load resources, then the domains made of them, which loadResources would reload otherwise
         loadResources(true);
+        Arrays.stream(ResourceDomain.values())
+            .filter(domain -> !domain.isLazy() && domain.hasResources())
+            .forEach(ResourceDomain::load);
         // Process into depots
         GameDepot.load();
-        // Load spawn data and quests
-        loadGadgetConfigData();
+        // Load spawn data
         loadSpawnData();
-        loadQuests();
-        loadScriptSceneData();
         // Load scene points - must be done AFTER resources are loaded
         loadScenePoints();
-        // Load default home layout
-        loadHomeworldDefaultSaveData();
-        loadNpcBornData();
         loadBlossomResources();
         cacheTalentLevelSets();
+        independent.join();
 
+        reportLoadTimes(System.nanoTime() - start);
+        if (SERVER.cacheResources) {
+            ResourceSnapshot.save();
+        }
         Grasscutter.getLogger().info(translate("messages.status.resources.finish"));
         loadedAll = true;
     }
 
+    private static CompletableFuture<Void> runAsync(Runnable loader) {
+        return CompletableFuture.runAsync(loader, loaderPool);
+    }
+
+    /**
+     * Parses files in parallel, timing each one.
+     * @param paths The files to parse.
+     * @param parser Parses a file, returning null to leave it out. It must not touch shared state.
+     * @return What was parsed, in the order of the paths.
+     */
+    private static <T> List<T> parseAll(Collection<Path> paths, Function<Path, T> parser) {
+        return loaderPool.submit(() -> paths.parallelStream()
+            .map(path -> timed(getResourcePath("").relativize(path).toString(), () -> parser.apply(path)))
+            .filter(Objects::nonNull)
+            .toList()
+        ).join();
+    }
+
+    private static <T> T timed(String file, Supplier<T> parser) {
+        long start = System.nanoTime();
+        try {
+            return parser.get();
+        } finally {
+            fileLoadTimes.merge(file, System.nanoTime() - start, Long::sum);
+        }
+    }
+
+    private static List<Path> listFiles(String folder, String glob) throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(getResourcePath(folder), glob)) {
+            stream.forEach(files::add);
+        }
+        return files;
+    }
+
+    private static void reportLoadTimes(long totalNanos) {
+        long parseNanos = fileLoadTimes.values().stream().mapToLong(Long::longValue).sum();
+        Grasscutter.getLogger().debug("Loaded {} resource files in {} ms ({} ms of parsing).",
+            fileLoadTimes.size(), totalNanos / 1_000_000, parseNanos / 1_000_000);
+
+        fileLoadTimes.entrySet().stream()
+            .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+            .limit(10)
+            .forEach(e -> Grasscutter.getLogger().debug("  {}: {} ms", e.getKey(), e.getValue() / 1_000_000));
+    }
+
+    /**
+     * @return The time spent parsing each resource file so far, in nanoseconds.
+     */
+    public static Map<String, Long> getFileLoadTimes() {
+        return Collections.unmodifiableMap(fileLoadTimes);
+    }
+
     public static void loadResources() {
         loadResources(false);
     }
 
     public static void loadResources(boolean doReload) {
+        // Every file is parsed in parallel up front. The parsed resources are then put into GameData
+        // one by one in load priority order, as onLoad may look up resources of a higher priority.
+        Map<Class<?>, List<CompletableFuture<List<?>>>> parsed = new LinkedHashMap<>();
         for (Class<?> resourceDefinition : getResourceDefClasses()) {
             ResourceType type = resourceDefinition.getAnnotation(ResourceType.class);
 
-            if (type == null) {
+            if (type == null || GameData.getMapByResourceDef(resourceDefinition) == null) {
+                continue;
+            }
+            // Loaded along with their domain, so only reloaded once the domain is
+            ResourceDomain domain = ResourceDomain.ofResource(resourceDefinition);
+            if (domain != null && !(doReload && domain.isLoaded())) {
+                continue;
+            }
+            if (loadedResources.contains(resourceDefinition.getSimpleName()) && !doReload) {
                 continue;
             }
 
+            parsed.put(resourceDefinition, Arrays.stream(type.name())
+                .<CompletableFuture<List<?>>>map(name -> CompletableFuture.supplyAsync(
+                    () -> parseResource(resourceDefinition, name), loaderPool))
+                .toList());
+        }
+
+        parsed.forEach((resourceDefinition, files) -> {
+            ResourceType type = resourceDefinition.getAnnotation(ResourceType.class);
+
             @SuppressWarnings("rawtypes")
             Int2ObjectMap map = GameData.getMapByResourceDef(resourceDefinition);
 
-            if (map == null) {
-                continue;
-            }
-
             try {
-                loadFromResource(resourceDefinition, type, map, doReload);
+                for (CompletableFuture<List<?>> file : files) {
+                    putResources(file.join(), map);
+                }
+                loadedResources.add(resourceDefinition.getSimpleName());
+                Grasscutter.getLogger().debug("Loaded " + map.size() + " " + resourceDefinition.getSimpleName() + "s.");
             } catch (Exception e) {
-                Grasscutter.getLogger().error("Error loading resource file: " + Arrays.toString(type.name()), e.getLocalizedMessage());
+                Throwable cause = e instanceof CompletionException ? e.getCause() : e;
+                Grasscutter.getLogger().error("Error loading resource file: " + Arrays.toString(type.name()), cause.getLocalizedMessage());
             }
-        }
+        });
     }
 
+    /**
+     * Loads a single resource type on the calling thread.
+     */
     @SuppressWarnings("rawtypes")
-    protected static void loadFromResource(Class<?> c, ResourceType type, Int2ObjectMap map, boolean doReload) throws Exception {
-        if (!loadedResources.contains(c.getSimpleName()) || doReload) {
+    static void loadResource(Class<?> resourceDefinition) {
+        ResourceType type = resourceDefinition.getAnnotation(ResourceType.class);
+        Int2ObjectMap map = GameData.getMapByResourceDef(resourceDefinition);
+
+        try {
             for (String name : type.name()) {
-                loadFromResource(c, name, map);
+                putResources(parseResource(resourceDefinition, name), map);
             }
-            loadedResources.add(c.getSimpleName());
-            Grasscutter.getLogger().debug("Loaded " + map.size() + " " + c.getSimpleName() + "s.");
+            loadedResources.add(resourceDefinition.getSimpleName());
+            Grasscutter.getLogger().debug("Loaded " + map.size() + " " + resourceDefinition.getSimpleName() + "s.");
+        } catch (Exception e) {
+            Grasscutter.getLogger().error("Error loading resource file: " + Arrays.toString(type.name()), e.getLocalizedMessage());
         }
     }
 
-    @SuppressWarnings({"rawtypes", "unchecked"})
-    protected static <T> void loadFromResource(Class<T> c, String fileName, Int2ObjectMap map) throws Exception {
-        List<T> list = JsonUtils.loadToList(getResourcePath("ExcelBinOutput/" + fileName), c);
+    private static List<?> parseResource(Class<?> c, String fileName) {
+        return timed("ExcelBinOutput/" + fileName, () -> {
+            try {
+                List<Object> list = new ArrayList<>();
+                JsonUtils.streamList(getResourcePath("ExcelBinOutput/" + fileName), c, list::add);
+                return list;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
 
-        for (T o : list) {
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static void putResources(List<?> list, Int2ObjectMap map) {
+        for (Object o : list) {
             GameResource res = (GameResource) o;
             res.onLoad();
             map.put(res.getId(), res);
@@ -133,22 +262,25 @@ public class ResourceLoader {
     public class ScenePointConfig {  // Sadly this doesn't work as a local class in loadScenePoints()
         public Map<Integer, PointData> points;
     }
+    private record ScenePoints(int sceneId, ScenePointConfig config) { }
     private static void loadScenePoints() {
         val pattern = Pattern.compile("scene([0-9]+)_point\\.json");
         try {
-            Files.newDirectoryStream(getResourcePath("BinOutput/Scene/Point"), "scene*_point.json").forEach(path -> {
+            parseAll(listFiles("BinOutput/Scene/Point", "scene*_point.json"), path -> {
                 val matcher = pattern.matcher(path.getFileName().toString());
-                if (!matcher.find()) return;
+                if (!matcher.find()) return null;
                 int sceneId = Integer.parseInt(matcher.group(1));
 
-                ScenePointConfig config;
                 try {
-                    config = JsonUtils.loadToClass(path, ScenePointConfig.class);
+                    return new ScenePoints(sceneId, JsonUtils.loadToClass(path, ScenePointConfig.class));
                 } catch (Exception e) {
                     e.printStackTrace();
-                    return;
+                    return null;
                 }
-
+            }).forEach(scene -> {
+                // Points look up the dungeons they lead to, so they are put in one at a time
+                int sceneId = scene.sceneId();
+                ScenePointConfig config = scene.config();
                 if (config.points == null) return;
 
                 val scenePoints = new IntArrayList();
@@ -197,11 +329,11 @@ public class ResourceLoader {
             // Load from BinOutput
             val pattern = Pattern.compile("ConfigAvatar_(.+?)\\.json");
 
-            val l = new ArrayList<AbilityEmbryoEntry>();
+            List<AbilityEmbryoEntry> l;
             try {
-                Files.newDirectoryStream(getResourcePath("BinOutput/Avatar/"), "ConfigAvatar_*.json").forEach(path -> {
+                l = parseAll(listFiles("BinOutput/Avatar/", "ConfigAvatar_*.json"), path -> {
                     val matcher = pattern.matcher(path.getFileName().toString());
-                    if (!matcher.find()) return;
+                    if (!matcher.find()) return null;
                     String avatarName = matcher.group(1);
                     AvatarConfig config;
 
@@ -209,14 +341,13 @@ public class ResourceLoader {
                         config = JsonUtils.loadToClass(path, AvatarConfig.class);
                     } catch (Exception e) {
                         Grasscutter.getLogger().error("Error loading player ability embryos:", e);
-                        return;
+                        return null;
                     }
 
-                    if (config.abilities == null) return;
+                    if (config.abilities == null) return null;
 
                     int s = config.abilities.size();
-                    AbilityEmbryoEntry al = new AbilityEmbryoEntry(avatarName, config.abilities.stream().map(Object::toString).toArray(size -> new String[s]));
-                    l.add(al);
+                    return new AbilityEmbryoEntry(avatarName, config.abilities.stream().map(Object::toString).toArray(size -> new String[s]));
                 });
             } catch (IOException e) {
                 Grasscutter.getLogger().error("Error loading ability embryos: no files found");
@@ -249,7 +380,8 @@ public class ResourceLoader {
     private static void loadAbilityModifiers() {
         // Load from BinOutput
         try (Stream<Path> paths = Files.walk(getResourcePath("BinOutput/Ability/Temp/"))) {
-            paths.filter(Files::isRegularFile).filter(path -> path.toString().endsWith(".json")).forEach(ResourceLoader::loadAbilityModifiers);
+            List<Path> files = paths.filter(Files::isRegularFile).filter(path -> path.toString().endsWith(".json")).toList();
+            parseAll(files, ResourceLoader::loadAbilityModifiers).forEach(list -> list.forEach(ResourceLoader::loadAbilityData));
         } catch (IOException e) {
             Grasscutter.getLogger().error("Error loading ability modifiers: ", e);
             return;
@@ -258,12 +390,14 @@ public class ResourceLoader {
         // modifierActionTypes.stream().sorted().forEach(s -> System.out.printf("%s, ", s));
         // System.out.println("[End]");
     }
-    private static void loadAbilityModifiers(Path path) {
+    private static List<AbilityData> loadAbilityModifiers(Path path) {
         try {
-            JsonUtils.loadToList(path, AbilityConfigData.class).forEach(data -> loadAbilityData(data.Default));
+            List<AbilityData> abilities = new ArrayList<>();
+            JsonUtils.streamList(path, AbilityConfigData.class, config -> abilities.add(config.Default));
+            return abilities;
         } catch (IOException e) {
             Grasscutter.getLogger().error("Error loading ability modifiers from path " + path.toString() + ": ", e);
-            return;
+            return null;
         }
     }
     private static void loadAbilityData(AbilityData data) {
@@ -294,35 +428,30 @@ public class ResourceLoader {
 
     private static void loadSpawnData() {
         String[] spawnDataNames = {"Spawns.json", "GadgetSpawns.json"};
-        ArrayList<SpawnGroupEntry> spawnEntryMap = new ArrayList<>();
+        Long2ObjectMap<List<SpawnDataEntry>> areaSort = new Long2ObjectOpenHashMap<>();
+        int[] groupCount = {0};
 
         for (String name : spawnDataNames) {
-            // Load spawn entries from file
+            // Load spawn entries from file, sorting them as they are read
             try (InputStreamReader reader = DataLoader.loadReader(name)) {
-                // Add spawns to group if it already exists in our spawn group map
-                spawnEntryMap.addAll(JsonUtils.loadToList(reader, SpawnGroupEntry.class));
+                //key = packed sceneId,scale,x,z , value = ArrayList<SpawnDataEntry>
+                JsonUtils.streamList(reader, SpawnGroupEntry.class, entry -> {
+                    groupCount[0]++;
+                    entry.getSpawns().forEach(
+                        s -> {
+                            s.setGroup(entry);
+                            areaSort.computeIfAbsent(s.getBlockKey(), point -> new ArrayList<>()).add(s);
+                        }
+                    );
+                });
             } catch (Exception ignored) {}
         }
 
-        if (spawnEntryMap.isEmpty()) {
+        if (groupCount[0] == 0) {
             Grasscutter.getLogger().error("No spawn data loaded!");
             return;
         }
 
-        HashMap<GridBlockId, ArrayList<SpawnDataEntry>> areaSort = new HashMap<>();
-        //key = sceneId,x,z , value = ArrayList<SpawnDataEntry>
-        for (SpawnGroupEntry entry : spawnEntryMap) {
-            entry.getSpawns().forEach(
-                s -> {
-                    s.setGroup(entry);
-                    GridBlockId point = s.getBlockId();
-                    if (!areaSort.containsKey(point)) {
-                        areaSort.put(point, new ArrayList<>());
-                    }
-                    areaSort.get(point).add(s);
-                }
-            );
-        }
         GameDepot.addSpawnListById(areaSort);
     }
 
@@ -340,15 +469,16 @@ public class ResourceLoader {
 
             for (String folderName : folderNames) {
                 try {
-                    Files.newDirectoryStream(getResourcePath(folderName), "*.json").forEach(path -> {
+                    parseAll(listFiles(folderName, "*.json"), path -> {
                         try {
-                            JsonUtils.loadToMap(path, String.class, OpenConfigData[].class)
-                                .forEach((name, data) -> map.put(name, new OpenConfigEntry(name, data)));
+                            List<OpenConfigEntry> entries = new ArrayList<>();
+                            JsonUtils.streamMap(path, OpenConfigData[].class, (name, data) -> entries.add(new OpenConfigEntry(name, data)));
+                            return entries;
                         } catch (Exception e) {
                             e.printStackTrace();
-                            return;
+                            return null;
                         }
-                    });
+                    }).forEach(entries -> entries.forEach(entry -> map.put(entry.getName(), entry)));
                 } catch (IOException e) {
                     Grasscutter.getLogger().error("Error loading open config: no files found in " + folderName);
                     return;
@@ -368,16 +498,15 @@ public class ResourceLoader {
         }
     }
 
-    private static void loadQuests() {
-        try {
-            Files.list(getResourcePath("BinOutput/Quest/")).forEach(path -> {
+    static void loadQuests() {
+        try (Stream<Path> paths = Files.list(getResourcePath("BinOutput/Quest/"))) {
+            parseAll(paths.toList(), path -> {
                 try {
-                    val mainQuest = JsonUtils.loadToClass(path, MainQuestData.class);
-                    GameData.getMainQuestDataMap().put(mainQuest.getId(), mainQuest);
+                    return JsonUtils.loadToClass(path, MainQuestData.class);
                 } catch (IOException e) {
-
+                    return null;
                 }
-            });
+            }).forEach(mainQuest -> GameData.getMainQuestDataMap().put(mainQuest.getId(), mainQuest));
         } catch (IOException e) {
             Grasscutter.getLogger().error("Quest data missing");
             return;
@@ -387,7 +516,7 @@ public class ResourceLoader {
             val questEncryptionMap = GameData.getMainQuestEncryptionMap();
             String path = "QuestEncryptionKeys.json";
             try {
-                JsonUtils.loadToList(getResourcePath(path), QuestEncryptionKey.class).forEach(key -> questEncryptionMap.put(key.getMainQuestId(), key));
+                JsonUtils.streamList(getResourcePath(path), QuestEncryptionKey.class, key -> questEncryptionMap.put(key.getMainQuestId(), key));
             } catch (IOException | NullPointerException ignored) {}
             try {
                 DataLoader.loadList(path, QuestEncryptionKey.class).forEach(key -> questEncryptionMap.put(key.getMainQuestId(), key));
@@ -401,15 +530,15 @@ public class ResourceLoader {
     }
 
     public static void loadScriptSceneData() {
-        try {
-            Files.list(getResourcePath("ScriptSceneData/")).forEach(path -> {
+        try (Stream<Path> paths = Files.list(getResourcePath("ScriptSceneData/"))) {
+            parseAll(paths.toList(), path -> {
                 try {
-                    GameData.getScriptSceneDataMap().put(path.getFileName().toString(), JsonUtils.loadToClass(path, ScriptSceneData.class));
+                    return Map.entry(path.getFileName().toString(), JsonUtils.loadToClass(path, ScriptSceneData.class));
                 } catch (IOException e) {
                     e.printStackTrace();
-                    return;
+                    return null;
                 }
-            });
+            }).forEach(entry -> GameData.getScriptSceneDataMap().put(entry.getKey(), entry.getValue()));
             Grasscutter.getLogger().debug("Loaded " + GameData.getScriptSceneDataMap().size() + " ScriptSceneDatas.");
         } catch (IOException e) {
             Grasscutter.getLogger().debug("ScriptSceneData folder missing or empty.");
@@ -417,38 +546,41 @@ public class ResourceLoader {
         }
     }
 
-    private static void loadHomeworldDefaultSaveData() {
+    static void loadHomeworldDefaultSaveData() {
         val pattern = Pattern.compile("scene([0-9]+)_home_config\\.json");
         try {
-            Files.newDirectoryStream(getResourcePath("BinOutput/HomeworldDefaultSave"), "scene*_home_config.json").forEach(path -> {
+            parseAll(listFiles("BinOutput/HomeworldDefaultSave", "scene*_home_config.json"), path -> {
                 val matcher = pattern.matcher(path.getFileName().toString());
-                if (!matcher.find()) return;
+                if (!matcher.find()) return null;
 
                 try {
                     val sceneId = Integer.parseInt(matcher.group(1));
-                    val data = JsonUtils.loadToClass(path, HomeworldDefaultSaveData.class);
-                    GameData.getHomeworldDefaultSaveData().put(sceneId, data);
-                } catch (Exception ignored) {}
-            });
+                    return Map.entry(sceneId, JsonUtils.loadToClass(path, HomeworldDefaultSaveData.class));
+                } catch (Exception ignored) {
+                    return null;
+                }
+            }).forEach(entry -> GameData.getHomeworldDefaultSaveData().put((int) entry.getKey(), entry.getValue()));
             Grasscutter.getLogger().debug("Loaded " + GameData.getHomeworldDefaultSaveData().size() + " HomeworldDefaultSaveDatas.");
         } catch (IOException e) {
             Grasscutter.getLogger().error("Failed to load HomeworldDefaultSave folder.");
         }
     }
 
-    private static void loadNpcBornData() {
+    static void loadNpcBornData() {
         try {
-            Files.newDirectoryStream(getResourcePath("BinOutput/Scene/SceneNpcBorn/"), "*.json").forEach(path -> {
+            parseAll(listFiles("BinOutput/Scene/SceneNpcBorn/", "*.json"), path -> {
                 try {
                     val data = JsonUtils.loadToClass(path, SceneNpcBornData.class);
                     if (data.getBornPosList() == null || data.getBornPosList().size() == 0) {
-                        return;
+                        return null;
                     }
 
                     data.setIndex(SceneIndexManager.buildIndex(3, data.getBornPosList(), item -> item.getPos().toPoint()));
-                    GameData.getSceneNpcBornData().put(data.getSceneId(), data);
-                } catch (IOException ignored) {}
-            });
+                    return data;
+                } catch (IOException ignored) {
+                    return null;
+                }
+            }).forEach(data -> GameData.getSceneNpcBornData().put(data.getSceneId(), data));
             Grasscutter.getLogger().debug("Loaded " + GameData.getSceneNpcBornData().size() + " SceneNpcBornDatas.");
         } catch (IOException e) {
             Grasscutter.getLogger().error("Failed to load SceneNpcBorn folder.");
@@ -457,14 +589,16 @@ public class ResourceLoader {
 
     private static void loadGadgetConfigData() {
         try {
-            Files.newDirectoryStream(getResourcePath("BinOutput/Gadget/"), "*.json").forEach(path -> {
+            parseAll(listFiles("BinOutput/Gadget/", "*.json"), path -> {
                 try {
-                    GameData.getGadgetConfigData().putAll(JsonUtils.loadToMap(path, String.class, ConfigGadget.class));
+                    Map<String, ConfigGadget> gadgets = new HashMap<>();
+                    JsonUtils.streamMap(path, ConfigGadget.class, gadgets::put);
+                    return gadgets;
                 } catch (Exception e) {
                     Grasscutter.getLogger().error("failed to load ConfigGadget entries for " + path.toString(), e);
-                    return;
+                    return null;
                 }
-            });
+            }).forEach(GameData.getGadgetConfigData()::putAll);
 
             Grasscutter.getLogger().debug("Loaded {} ConfigGadget entries.", GameData.getGadgetConfigData().size());
         } catch (IOException e) {
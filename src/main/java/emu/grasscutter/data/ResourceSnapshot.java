@@ -0,0 +1,242 @@
+package emu.grasscutter.data;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.objenesis.strategy.StdInstantiatorStrategy;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.SerializerFactory.FieldSerializerFactory;
+import com.esotericsoftware.kryo.io.ByteBufferInput;
+import com.esotericsoftware.kryo.io.Output;
+import com.esotericsoftware.kryo.serializers.FieldSerializer.FieldSerializerConfig;
+import com.esotericsoftware.kryo.serializers.ImmutableCollectionsSerializers;
+import com.esotericsoftware.kryo.util.DefaultInstantiatorStrategy;
+
+import emu.grasscutter.Grasscutter;
+import emu.grasscutter.data.excels.ChapterData;
+import emu.grasscutter.utils.Utils;
+
+import static emu.grasscutter.config.Configuration.SERVER;
+import static emu.grasscutter.utils.FileUtils.getDataPath;
+import static emu.grasscutter.utils.FileUtils.getResourcePath;
+
+/**
+ * A binary copy of everything {@link ResourceLoader#loadAll()} produces, so later starts can skip parsing.
+ * It holds the static containers of {@link GameData}, {@link GameDepot} and the resources which fill their own,
+ * in the state they are in after every onLoad hook ran; restoring it needs no hooks.
+ * The snapshot is keyed by the size and modification time of every resource and data file, and by the server's classes.
+ */
+final class ResourceSnapshot {
+    /* Bump whenever the format of the file changes. */
+    private static final int VERSION = 2;
+    private static final Path SNAPSHOT_PATH = Path.of(Utils.toFilePath("cache/ResourceSnapshot.bin"));
+
+    /* Classes whose static containers are filled while loading. */
+    private static final List<Class<?>> HOLDERS = List.of(GameData.class, GameDepot.class, ChapterData.class);
+
+    private ResourceSnapshot() { }
+
+    /**
+     * Restores the snapshot, if there is one for the current resources.
+     * @return Whether it was restored. If not, nothing was changed.
+     */
+    static boolean restore() {
+        if (!Files.exists(SNAPSHOT_PATH)) {
+            return false;
+        }
+
+        try (FileChannel channel = FileChannel.open(SNAPSHOT_PATH, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            ByteBufferInput input = new ByteBufferInput(buffer);
+
+            if (input.readInt() != VERSION || input.readLong() != computeKey()) {
+                Grasscutter.getLogger().debug("Resource snapshot is out of date.");
+                return false;
+            }
+
+            // Everything is decoded and checked before the first field is touched,
+            // so a snapshot which turns out to be unusable leaves the loaded resources alone.
+            Object[] values = (Object[]) newKryo().readClassAndObject(input);
+            List<Field> fields = getFields();
+            if (values.length != fields.size()) {
+                return false;
+            }
+            for (int i = 0; i < values.length; i++) {
+                if (!canRestore(fields.get(i), values[i])) {
+                    Grasscutter.getLogger().debug("Resource snapshot does not match " + fields.get(i) + ".");
+                    return false;
+                }
+            }
+            for (int i = 0; i < values.length; i++) {
+                restoreField(fields.get(i), values[i]);
+            }
+            return true;
+        } catch (Exception e) {
+            Grasscutter.getLogger().warn("Failed to restore the resource snapshot, loading resources instead.", e);
+            return false;
+        }
+    }
+
+    /**
+     * Writes a snapshot of the currently loaded resources.
+     */
+    static void save() {
+        Path temp = SNAPSHOT_PATH.resolveSibling(SNAPSHOT_PATH.getFileName() + ".tmp");
+        try {
+            Files.createDirectories(SNAPSHOT_PATH.getParent());
+
+            List<Field> fields = getFields();
+            Object[] values = new Object[fields.size()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = fields.get(i).get(null);
+            }
+
+            try (OutputStream stream = new BufferedOutputStream(Files.newOutputStream(temp), 0x100000);
+                 Output output = new Output(stream, 0x100000)) {
+                output.writeInt(VERSION);
+                output.writeLong(computeKey());
+                newKryo().writeClassAndObject(output, values);
+            }
+            // Never leave a half written snapshot behind.
+            Files.move(temp, SNAPSHOT_PATH, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (Throwable e) {
+            Grasscutter.getLogger().warn("Failed to save the resource snapshot.", e);
+            try {
+                Files.deleteIfExists(temp);
+            } catch (IOException ignored) { }
+        }
+    }
+
+    private static Kryo newKryo() {
+        Kryo kryo = new Kryo();
+        kryo.setRegistrationRequired(false);
+        kryo.setReferences(true);  // Resources refer to each other.
+        kryo.setInstantiatorStrategy(new DefaultInstantiatorStrategy(new StdInstantiatorStrategy()));
+
+        // Fields filled in by onLoad are mostly transient, they are what makes skipping it possible.
+        FieldSerializerFactory fields = new FieldSerializerFactory();
+        FieldSerializerConfig config = fields.getConfig();
+        config.setSerializeTransient(true);
+        kryo.setDefaultSerializer(fields);
+        ImmutableCollectionsSerializers.addDefaultSerializers(kryo);
+        return kryo;
+    }
+
+    /**
+     * Gets the static fields the snapshot consists of, always in the same order.
+     */
+    private static List<Field> getFields() throws ReflectiveOperationException {
+        List<Field> fields = new ArrayList<>();
+        for (Class<?> holder : HOLDERS) {
+            for (Field field : holder.getDeclaredFields()) {
+                int modifiers = field.getModifiers();
+                if (!Modifier.isStatic(modifiers) || field.isSynthetic()) {
+                    continue;
+                }
+                // Final fields can only be refilled, which leaves out constants.
+                if (Modifier.isFinal(modifiers)
+                    && !Map.class.isAssignableFrom(field.getType())
+                    && !Collection.class.isAssignableFrom(field.getType())) {
+                    continue;
+                }
+                field.setAccessible(true);
+                fields.add(field);
+            }
+        }
+        return fields;
+    }
+
+    private static boolean canRestore(Field field, Object value) throws ReflectiveOperationException {
+        if (!Modifier.isFinal(field.getModifiers())) {
+            // Primitives come back boxed.
+            Class<?> type = MethodType.methodType(field.getType()).wrap().returnType();
+            return value == null ? !field.getType().isPrimitive() : type.isInstance(value);
+        }
+        Object target = field.get(null);
+        return (value instanceof Map && target instanceof Map) || (value instanceof Collection && target instanceof Collection);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static void restoreField(Field field, Object value) throws ReflectiveOperationException {
+        if (!Modifier.isFinal(field.getModifiers())) {
+            field.set(null, value);
+        } else if (value instanceof Map map) {
+            Map target = (Map) field.get(null);
+            target.clear();
+            target.putAll(map);
+        } else if (value instanceof Collection collection) {
+            Collection target = (Collection) field.get(null);
+            target.clear();
+            target.addAll(collection);
+        }
+    }
+
+    /**
+     * Hashes the size and modification time of everything the resources are loaded from, and the server's classes.
+     */
+    private static long computeKey() throws IOException {
+        long key = VERSION;
+        for (Path root : new Path[] {getResourcePath(""), getDataPath("")}) {
+            key = hashFiles(key, root);
+        }
+
+        // Lazy domains are left out of the snapshot.
+        key = 31 * key + SERVER.lazyResources.stream().map(Enum::name).sorted().toList().hashCode();
+
+        // Resource classes may have changed along with the server.
+        try {
+            Path server = Path.of(Grasscutter.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+            key = Files.isDirectory(server) ? hashFiles(key, server) : hashJar(key, server);
+        } catch (Exception ignored) {
+            key = 31 * key + System.nanoTime();  // Unknown, so never reuse the snapshot.
+        }
+        return key;
+    }
+
+    private static long hashFiles(long key, Path root) throws IOException {
+        if (!Files.isDirectory(root)) {
+            return key;
+        }
+        try (Stream<Path> files = Files.walk(root)) {
+            for (Path file : files.filter(Files::isRegularFile).sorted().toList()) {
+                key = 31 * key + file.toString().hashCode();
+                key = 31 * key + Files.size(file);
+                key = 31 * key + Files.getLastModifiedTime(file).toMillis();
+            }
+        }
+        return key;
+    }
+
+    /**
+     * Hashes the content of a jar by the checksums of its entries, which survive a rebuild with an unchanged mtime.
+     */
+    private static long hashJar(long key, Path jar) throws IOException {
+        try (ZipFile zip = new ZipFile(jar.toFile())) {
+            var entries = zip.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                key = 31 * key + entry.getName().hashCode();
+                key = 31 * key + entry.getCrc();
+            }
+        }
+        return key;
+    }
+}
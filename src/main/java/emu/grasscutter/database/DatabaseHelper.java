@@ -3,11 +3,6 @@ package emu.grasscutter.database;
 import java.util.List;
 import java.util.stream.Stream;
 
-import com.mongodb.client.result.DeleteResult;
-
-import dev.morphia.query.FindOptions;
-import dev.morphia.query.Sort;
-import dev.morphia.query.experimental.filters.Filters;
 import emu.grasscutter.GameConstants;
 import emu.grasscutter.Grasscutter;
 import emu.grasscutter.game.Account;
@@ -19,12 +14,11 @@ import emu.grasscutter.game.friends.Friendship;
 import emu.grasscutter.game.gacha.GachaRecord;
 import emu.grasscutter.game.home.GameHome;
 import emu.grasscutter.game.inventory.GameItem;
+import emu.grasscutter.game.mail.BroadcastMail;
 import emu.grasscutter.game.mail.Mail;
 import emu.grasscutter.game.player.Player;
 import emu.grasscutter.game.quest.GameMainQuest;
 
-import static com.mongodb.client.model.Filters.eq;
-
 public final class DatabaseHelper {
     public static Account createAccount(String username) {
         return createAccountWithUid(username, 0);
@@ -84,43 +78,41 @@ public final class DatabaseHelper {
     }
 
     public static void saveAccount(Account account) {
-        DatabaseManager.getAccountDatastore().save(account);
+        DatabaseManager.getStorage().saveAccount(account);
     }
 
     public static Account getAccountByName(String username) {
-        return DatabaseManager.getAccountDatastore().find(Account.class).filter(Filters.eq("username", username)).first();
+        return DatabaseManager.getStorage().getAccountByName(username);
     }
 
     public static Account getAccountByToken(String token) {
         if (token == null) return null;
-        return DatabaseManager.getAccountDatastore().find(Account.class).filter(Filters.eq("token", token)).first();
+        return DatabaseManager.getStorage().getAccountByToken(token);
     }
 
     public static Account getAccountBySessionKey(String sessionKey) {
         if (sessionKey == null) return null;
-        return DatabaseManager.getAccountDatastore().find(Account.class).filter(Filters.eq("sessionKey", sessionKey)).first();
+        return DatabaseManager.getStorage().getAccountBySessionKey(sessionKey);
     }
 
     public static Account getAccountById(String uid) {
-        return DatabaseManager.getAccountDatastore().find(Account.class).filter(Filters.eq("_id", uid)).first();
+        return DatabaseManager.getStorage().getAccountById(uid);
     }
 
     public static Account getAccountByPlayerId(int playerId) {
-        return DatabaseManager.getAccountDatastore().find(Account.class).filter(Filters.eq("reservedPlayerId", playerId)).first();
+        return DatabaseManager.getStorage().getAccountByPlayerId(playerId);
     }
 
     public static boolean checkIfAccountExists(String name) {
-        return DatabaseManager.getAccountDatastore().find(Account.class).filter(Filters.eq("username", name)).count() > 0;
+        return getAccountByName(name) != null;
     }
 
     public static boolean checkIfAccountExists(int reservedUid) {
-        return DatabaseManager.getAccountDatastore().find(Account.class).filter(Filters.eq("reservedPlayerId", reservedUid)).count() > 0;
+        return getAccountByPlayerId(reservedUid) != null;
     }
 
     public static synchronized void deleteAccount(Account target) {
         // To delete an account, we need to also delete all the other documents in the database that reference the account.
-        // This should optimally be wrapped inside a transaction, to make sure an error thrown mid-way does not leave the
-        // database in an inconsistent state, but unfortunately Mongo only supports that when we have a replica set ...
 
         Player player = Grasscutter.getGameServer().getPlayerByAccountId(target.getId());
 
@@ -131,54 +123,35 @@ public final class DatabaseHelper {
             player = getPlayerByAccount(target);
             if (player == null) return;
         }
-        int uid = player.getUid();
-        // Delete data from collections
-        DatabaseManager.getGameDatabase().getCollection("activities").deleteMany(eq("uid", uid));
-        DatabaseManager.getGameDatabase().getCollection("homes").deleteMany(eq("ownerUid", uid));
-        DatabaseManager.getGameDatabase().getCollection("mail").deleteMany(eq("ownerUid", uid));
-        DatabaseManager.getGameDatabase().getCollection("avatars").deleteMany(eq("ownerId", uid));
-        DatabaseManager.getGameDatabase().getCollection("gachas").deleteMany(eq("ownerId", uid));
-        DatabaseManager.getGameDatabase().getCollection("items").deleteMany(eq("ownerId", uid));
-        DatabaseManager.getGameDatabase().getCollection("quests").deleteMany(eq("ownerUid", uid));
-        DatabaseManager.getGameDatabase().getCollection("battlepass").deleteMany(eq("ownerUid", uid));
-
-        // Delete friendships.
-        // Here, we need to make sure to not only delete the deleted account's friendships,
-        // but also all friendship entries for that account's friends.
-        DatabaseManager.getGameDatabase().getCollection("friendships").deleteMany(eq("ownerId", uid));
-        DatabaseManager.getGameDatabase().getCollection("friendships").deleteMany(eq("friendId", uid));
-
-        // Delete the player last.
-        DatabaseManager.getGameDatastore().find(Player.class).filter(Filters.eq("id", uid)).delete();
-
-        // Finally, delete the account itself.
-        DatabaseManager.getAccountDatastore().find(Account.class).filter(Filters.eq("id", target.getId())).delete();
+        // Delete everything the player owns, then the player and finally the account itself.
+        DatabaseManager.getStorage().deletePlayerData(player.getUid());
+        DatabaseManager.getStorage().deleteAccount(target);
     }
 
     public static <T> Stream<T> getByGameClass(Class<T> classType) {
-        return DatabaseManager.getGameDatastore().find(classType).stream();
+        return DatabaseManager.getStorage().getAll(classType);
     }
 
     @Deprecated(forRemoval = true)
     public static List<Player> getAllPlayers() {
-        return DatabaseManager.getGameDatastore().find(Player.class).stream().toList();
+        return getByGameClass(Player.class).toList();
     }
 
     public static Player getPlayerByUid(int id) {
-        return DatabaseManager.getGameDatastore().find(Player.class).filter(Filters.eq("_id", id)).first();
+        return DatabaseManager.getStorage().getPlayerByUid(id);
     }
 
     @Deprecated
     public static Player getPlayerByAccount(Account account) {
-        return DatabaseManager.getGameDatastore().find(Player.class).filter(Filters.eq("accountId", account.getId())).first();
+        return getPlayerByAccount(account, Player.class);
     }
 
     public static Player getPlayerByAccount(Account account, Class<? extends Player> playerClass) {
-        return DatabaseManager.getGameDatastore().find(playerClass).filter(Filters.eq("accountId", account.getId())).first();
+        return DatabaseManager.getStorage().getPlayerByAccountId(account.getId(), playerClass);
     }
 
     public static boolean checkIfPlayerExists(int uid) {
-        return DatabaseManager.getGameDatastore().find(Player.class).filter(Filters.eq("_id", uid)).count() > 0;
+        return DatabaseManager.getStorage().checkIfPlayerExists(uid);
     }
 
     public static synchronized Player generatePlayerUid(Player character, int reservedId) {
@@ -195,7 +168,7 @@ public final class DatabaseHelper {
             character.setUid(id);
         }
         // Save to database
-        DatabaseManager.getGameDatastore().save(character);
+        DatabaseManager.getStorage().insertPlayer(character);
         return character;
     }
 
@@ -214,51 +187,52 @@ public final class DatabaseHelper {
     }
 
     public static void savePlayer(Player character) {
-        DatabaseManager.getGameDatastore().save(character);
+        DatabaseManager.getStorage().savePlayer(character);
     }
 
     public static void saveAvatar(Avatar avatar) {
-        DatabaseManager.getGameDatastore().save(avatar);
+        DatabaseManager.getStorage().saveAvatar(avatar);
     }
 
     public static List<Avatar> getAvatars(Player player) {
-        return DatabaseManager.getGameDatastore().find(Avatar.class).filter(Filters.eq("ownerId", player.getUid())).stream().toList();
+        return DatabaseManager.getStorage().getAvatars(player.getUid());
     }
 
     public static void saveItem(GameItem item) {
-        DatabaseManager.getGameDatastore().save(item);
+        DatabaseManager.getStorage().saveItem(item);
     }
 
     public static boolean deleteItem(GameItem item) {
-        DeleteResult result = DatabaseManager.getGameDatastore().delete(item);
-        return result.wasAcknowledged();
+        DatabaseManager.getStorage().deleteItem(item);
+        return true;
     }
 
     public static List<GameItem> getInventoryItems(Player player) {
-        return DatabaseManager.getGameDatastore().find(GameItem.class).filter(Filters.eq("ownerId", player.getUid())).stream().toList();
+        return DatabaseManager.getStorage().getInventoryItems(player.getUid());
+    }
+
+    public static List<GameItem> getEquippedItems(Player player) {
+        return DatabaseManager.getStorage().getEquippedItems(player.getUid());
     }
 
     public static List<Friendship> getFriends(Player player) {
-        return DatabaseManager.getGameDatastore().find(Friendship.class).filter(Filters.eq("ownerId", player.getUid())).stream().toList();
+        return DatabaseManager.getStorage().getFriends(player.getUid());
     }
 
     public static List<Friendship> getReverseFriends(Player player) {
-        return DatabaseManager.getGameDatastore().find(Friendship.class).filter(Filters.eq("friendId", player.getUid())).stream().toList();
+        return DatabaseManager.getStorage().getReverseFriends(player.getUid());
     }
 
     public static void saveFriendship(Friendship friendship) {
-        DatabaseManager.getGameDatastore().save(friendship);
+        DatabaseManager.getStorage().saveFriendship(friendship);
     }
 
     public static void deleteFriendship(Friendship friendship) {
-        DatabaseManager.getGameDatastore().delete(friendship);
+        DatabaseManager.getStorage().deleteFriendship(friendship);
     }
 
     public static Friendship getReverseFriendship(Friendship friendship) {
-        return DatabaseManager.getGameDatastore().find(Friendship.class).filter(Filters.and(
-                Filters.eq("ownerId", friendship.getFriendId()),
-                Filters.eq("friendId", friendship.getOwnerId())
-        )).first();
+        return DatabaseManager.getStorage().getFriendship(friendship.getFriendId(), friendship.getOwnerId());
     }
 
     public static List<GachaRecord> getGachaRecords(int ownerId, int page, int gachaType) {
@@ -266,14 +240,7 @@ public final class DatabaseHelper {
     }
 
     public static List<GachaRecord> getGachaRecords(int ownerId, int page, int gachaType, int pageSize) {
-        return DatabaseManager.getGameDatastore().find(GachaRecord.class).filter(
-            Filters.eq("ownerId", ownerId),
-            Filters.eq("gachaType", gachaType)
-        ).iterator(new FindOptions()
-                .sort(Sort.descending("transactionDate"))
-                .skip(pageSize * page)
-                .limit(pageSize)
-        ).toList();
+        return DatabaseManager.getStorage().getGachaRecords(ownerId, gachaType, pageSize * page, pageSize);
     }
 
     public static long getGachaRecordsMaxPage(int ownerId, int page, int gachaType) {
@@ -281,52 +248,61 @@ public final class DatabaseHelper {
     }
 
     public static long getGachaRecordsMaxPage(int ownerId, int page, int gachaType, int pageSize) {
-        long count = DatabaseManager.getGameDatastore().find(GachaRecord.class).filter(
-            Filters.eq("ownerId", ownerId),
-            Filters.eq("gachaType", gachaType)
-        ).count();
+        long count = DatabaseManager.getStorage().countGachaRecords(ownerId, gachaType);
         return count / 10 + (count % 10 > 0 ? 1 : 0 );
     }
 
     public static void saveGachaRecord(GachaRecord gachaRecord) {
-        DatabaseManager.getGameDatastore().save(gachaRecord);
+        DatabaseManager.getStorage().saveGachaRecord(gachaRecord);
     }
 
     public static List<Mail> getAllMail(Player player) {
-        return DatabaseManager.getGameDatastore().find(Mail.class).filter(Filters.eq("ownerUid", player.getUid())).stream().toList();
+        return DatabaseManager.getStorage().getAllMail(player.getUid());
     }
 
     public static void saveMail(Mail mail) {
-        DatabaseManager.getGameDatastore().save(mail);
+        DatabaseManager.getStorage().saveMail(mail);
     }
 
     public static boolean deleteMail(Mail mail) {
-        DeleteResult result = DatabaseManager.getGameDatastore().delete(mail);
-        return result.wasAcknowledged();
+        DatabaseManager.getStorage().deleteMail(mail);
+        return true;
+    }
+
+    public static void saveBroadcastMail(BroadcastMail mail) {
+        DatabaseManager.getStorage().saveBroadcastMail(mail);
     }
 
     public static List<GameMainQuest> getAllQuests(Player player) {
-        return DatabaseManager.getGameDatastore().find(GameMainQuest.class).filter(Filters.eq("ownerUid", player.getUid())).stream().toList();
+        return DatabaseManager.getStorage().getAllQuests(player.getUid());
     }
 
     public static void saveQuest(GameMainQuest quest) {
-        DatabaseManager.getGameDatastore().save(quest);
+        DatabaseManager.getStorage().saveQuest(quest);
     }
 
     public static boolean deleteQuest(GameMainQuest quest) {
-        return DatabaseManager.getGameDatastore().delete(quest).wasAcknowledged();
+        DatabaseManager.getStorage().deleteQuest(quest);
+        return true;
     }
 
     public static GameHome getHomeByUid(int id) {
-        return DatabaseManager.getGameDatastore().find(GameHome.class).filter(Filters.eq("ownerUid", id)).first();
+        return DatabaseManager.getStorage().getHomeByUid(id);
     }
 
     public static void saveHome(GameHome gameHome) {
-        DatabaseManager.getGameDatastore().save(gameHome);
+        DatabaseManager.getStorage().saveHome(gameHome);
     }
 
     public static BattlePassManager loadBattlePass(Player player) {
-        BattlePassManager manager = DatabaseManager.getGameDatastore().find(BattlePassManager.class).filter(Filters.eq("ownerUid", player.getUid())).first();
+        return loadBattlePass(player, getBattlePass(player.getUid()));
+    }
+
+    public static BattlePassManager getBattlePass(int uid) {
+        return DatabaseManager.getStorage().getBattlePass(uid);
+    }
+
+    public static BattlePassManager loadBattlePass(Player player, BattlePassManager manager) {
         if (manager == null) {
             manager = new BattlePassManager(player);
             manager.save();
@@ -337,25 +313,21 @@ public final class DatabaseHelper {
     }
 
     public static void saveBattlePass(BattlePassManager manager) {
-        DatabaseManager.getGameDatastore().save(manager);
+        DatabaseManager.getStorage().saveBattlePass(manager);
     }
 
     public static PlayerActivityData getPlayerActivityData(int uid, int activityId) {
-        return DatabaseManager.getGameDatastore().find(PlayerActivityData.class)
-            .filter(Filters.and(Filters.eq("uid", uid),Filters.eq("activityId", activityId)))
-            .first();
+        return DatabaseManager.getStorage().getPlayerActivityData(uid, activityId);
     }
 
     public static void savePlayerActivityData(PlayerActivityData playerActivityData) {
-        DatabaseManager.getGameDatastore().save(playerActivityData);
+        DatabaseManager.getStorage().savePlayerActivityData(playerActivityData);
     }
     public static MusicGameBeatmap getMusicGameBeatmap(long musicShareId) {
-        return DatabaseManager.getGameDatastore().find(MusicGameBeatmap.class)
-            .filter(Filters.eq("musicShareId", musicShareId))
-            .first();
+        return DatabaseManager.getStorage().getMusicGameBeatmap(musicShareId);
     }
 
     public static void saveMusicGameBeatmap(MusicGameBeatmap musicGameBeatmap) {
-        DatabaseManager.getGameDatastore().save(musicGameBeatmap);
+        DatabaseManager.getStorage().saveMusicGameBeatmap(musicGameBeatmap);
     }
 }
@@ -2,6 +2,9 @@ package emu.grasscutter.database;
 
 import static emu.grasscutter.config.Configuration.*;
 
+import java.util.concurrent.TimeUnit;
+
+import com.mongodb.MongoClientSettings;
 import com.mongodb.MongoCommandException;
 import com.mongodb.client.MongoClient;
 import com.mongodb.client.MongoClients;
@@ -13,22 +16,27 @@ import dev.morphia.Morphia;
 import dev.morphia.annotations.Entity;
 import dev.morphia.mapping.Mapper;
 import dev.morphia.mapping.MapperOptions;
-import dev.morphia.query.experimental.filters.Filters;
 
 import emu.grasscutter.Grasscutter;
 import emu.grasscutter.Grasscutter.ServerRunMode;
 import emu.grasscutter.game.Account;
+import emu.grasscutter.game.player.Player;
 
 import org.reflections.Reflections;
 
 public final class DatabaseManager {
     private static Datastore gameDatastore;
     private static Datastore dispatchDatastore;
+    private static StorageBackend storage;
 
     public static Datastore getGameDatastore() {
         return gameDatastore;
     }
 
+    public static StorageBackend getStorage() {
+        return storage;
+    }
+
     public static MongoDatabase getGameDatabase() {
         return getGameDatastore().getDatabase();
     }
@@ -44,8 +52,10 @@ public final class DatabaseManager {
     }
 
     public static void initialize() {
+        boolean embedded = DATABASE.backend.equalsIgnoreCase("embedded");
+
         // Initialize
-        MongoClient gameMongoClient = MongoClients.create(DATABASE.game.connectionUri);
+        MongoClient gameMongoClient = embedded ? createCodecOnlyClient() : MongoClients.create(DATABASE.game.connectionUri);
 
         // Set mapper options.
         MapperOptions mapperOptions = MapperOptions.builder()
@@ -66,9 +76,23 @@ public final class DatabaseManager {
 
         gameDatastore.getMapper().map(entities);
 
+        if (embedded) {
+            storage = new EmbeddedStorageBackend(DATABASE.embeddedFile, gameDatastore.getCodecRegistry());
+            return;
+        }
+
         // Ensure indexes for the game datastore
         ensureIndexes(gameDatastore);
 
+        // Lease ids in blocks.
+        IdAllocator idAllocator = new IdAllocator(gameDatastore.getDatabase().getCollection("counters"), DATABASE.idBlockSize);
+
+        // Batch game document writes.
+        DatabaseWriter gameWriter = new DatabaseWriter(gameDatastore, DATABASE.writeBehindInterval, DATABASE.writeBehindThreads);
+        if (DATABASE.partialPlayerUpdates) {
+            gameWriter.enablePartialUpdates(Player.class);
+        }
+
         if (SERVER.runMode == ServerRunMode.GAME_ONLY) {
             MongoClient dispatchMongoClient = MongoClients.create(DATABASE.server.connectionUri);
 
@@ -78,6 +102,18 @@ public final class DatabaseManager {
             // Ensure indexes for dispatch datastore
             ensureIndexes(dispatchDatastore);
         }
+
+        storage = new MongoStorageBackend(gameDatastore, getAccountDatastore(), gameWriter, idAllocator);
+    }
+
+    /**
+     * Creates a client for the embedded backend, which only needs Morphia's codecs and never queries.
+     * Its server monitor would keep retrying in the background, so it is slowed down to a single attempt.
+     */
+    private static MongoClient createCodecOnlyClient() {
+        return MongoClients.create(MongoClientSettings.builder()
+            .applyToServerSettings(settings -> settings.heartbeatFrequency(1, TimeUnit.DAYS))
+            .build());
     }
 
     /**
@@ -102,19 +138,11 @@ public final class DatabaseManager {
         }
     }
 
-    public static synchronized int getNextId(Class<?> c) {
-        DatabaseCounter counter = getGameDatastore().find(DatabaseCounter.class).filter(Filters.eq("_id", c.getSimpleName())).first();
-        if (counter == null) {
-            counter = new DatabaseCounter(c.getSimpleName());
-        }
-        try {
-            return counter.getNextId();
-        } finally {
-            getGameDatastore().save(counter);
-        }
+    public static int getNextId(Class<?> c) {
+        return storage.getNextId(c.getSimpleName());
     }
 
-    public static synchronized int getNextId(Object o) {
+    public static int getNextId(Object o) {
         return getNextId(o.getClass());
     }
 }
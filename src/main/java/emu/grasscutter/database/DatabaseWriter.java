@@ -0,0 +1,345 @@
+package emu.grasscutter.database;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.bson.BsonDocument;
+import org.bson.BsonDocumentWriter;
+import org.bson.codecs.Codec;
+import org.bson.codecs.EncoderContext;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.MongoSocketException;
+import com.mongodb.MongoTimeoutException;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.DeleteOneModel;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.WriteModel;
+
+import dev.morphia.Datastore;
+import emu.grasscutter.Grasscutter;
+import io.netty.util.concurrent.DefaultThreadFactory;
+
+/**
+ * Write-behind queue for game documents.
+ * Saving an entity only snapshots it into BSON and marks its document dirty;
+ * repeated saves of the same document before the next flush replace each other.
+ * Dirty documents are written periodically with one unordered bulk write per collection.
+ * Types registered for partial updates are written as $set/$unset of the changed fields
+ * once a full version of the document has been written.
+ * Writes which fail are retried in full on the next flush, up to {@link #MAX_ATTEMPTS} times.
+ */
+public final class DatabaseWriter {
+    private static final ReplaceOptions UPSERT = new ReplaceOptions().upsert(true);
+    private static final BulkWriteOptions UNORDERED = new BulkWriteOptions().ordered(false);
+    /* How often shutdown tries to write what failed to be written before giving up on it. */
+    private static final int SHUTDOWN_ATTEMPTS = 3;
+    /* How often a document is tried before it is given up on. */
+    private static final int MAX_ATTEMPTS = 5;
+    /* Errors writing the same document again cannot fix: bad value, duplicate key, document or key too large. */
+    private static final Set<Integer> PERMANENT_ERRORS = Set.of(2, 11000, 10334, 17280);
+
+    private final Datastore datastore;
+    private final boolean enabled;
+
+    /* Pending writes, keyed by collection and document id. A null document marks a delete. */
+    private final ConcurrentHashMap<DocumentKey, PendingWrite> pending = new ConcurrentHashMap<>();
+    private final Map<Class<?>, MongoCollection<BsonDocument>> collections = new ConcurrentHashMap<>();
+
+    /* Partial updates: the registered types, and fingerprints of the last version written of each document. */
+    private final Set<Class<?>> partialTypes = ConcurrentHashMap.newKeySet();
+    private final Map<Class<?>, Boolean> partialTypeCache = new ConcurrentHashMap<>();
+    private final Map<DocumentKey, DocumentFingerprint> written = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService flushScheduler;
+    private final ExecutorService ioPool;
+    private volatile boolean closed = false;
+
+    public DatabaseWriter(Datastore datastore, int flushInterval, int threads) {
+        this.datastore = datastore;
+        this.enabled = flushInterval > 0;
+
+        if (this.enabled) {
+            this.flushScheduler = Executors.newSingleThreadScheduledExecutor(new DefaultThreadFactory("DatabaseFlush", true));
+            this.ioPool = Executors.newFixedThreadPool(Math.max(1, threads), new DefaultThreadFactory("DatabaseWriter", true));
+            this.flushScheduler.scheduleWithFixedDelay(this::flushQuietly, flushInterval, flushInterval, TimeUnit.MILLISECONDS);
+        } else {
+            this.flushScheduler = null;
+            this.ioPool = null;
+        }
+    }
+
+    /**
+     * Writes documents of the given type, and its subclasses, as partial updates.
+     * @param type The entity type.
+     */
+    public void enablePartialUpdates(Class<?> type) {
+        this.partialTypes.add(type);
+        this.partialTypeCache.clear();
+    }
+
+    /**
+     * Forgets what was last written for an entity, so its next save is written in full.
+     * @param entity The entity.
+     */
+    public void evict(Object entity) {
+        Object id = EntityIds.get(entity);
+        if (id != null) {
+            this.written.remove(new DocumentKey(entity.getClass(), id));
+        }
+    }
+
+    /**
+     * @return The number of documents waiting to be written.
+     */
+    public int getPendingCount() {
+        return this.pending.size();
+    }
+
+    /**
+     * Queues an entity to be saved.
+     * The entity is serialized immediately, so later changes are not picked up until it is saved again.
+     * @param entity The entity to save.
+     */
+    public <T> void save(T entity) {
+        if (!this.enabled || this.closed) {
+            this.evict(entity);
+            this.datastore.save(entity);
+            return;
+        }
+
+        Object id = EntityIds.getOrAssign(entity);
+        if (id == null) {
+            // Only ObjectId and string ids can be generated here, anything else has to be inserted right away.
+            this.datastore.save(entity);
+            return;
+        }
+
+        BsonDocument document = this.encode(entity);
+        this.pending.put(new DocumentKey(entity.getClass(), id), new PendingWrite(id, document, 0));
+    }
+
+    /**
+     * Queues an entity to be deleted, discarding any save of it which is still pending.
+     * @param entity The entity to delete.
+     */
+    public void delete(Object entity) {
+        Object id = EntityIds.get(entity);
+        if (id == null) {
+            return; // Never saved.
+        }
+
+        if (!this.enabled || this.closed) {
+            this.pending.remove(new DocumentKey(entity.getClass(), id));
+            this.written.remove(new DocumentKey(entity.getClass(), id));
+            this.datastore.delete(entity);
+            return;
+        }
+
+        this.pending.put(new DocumentKey(entity.getClass(), id), new PendingWrite(id, null, 0));
+    }
+
+    /**
+     * Writes every pending document and waits until they are stored.
+     */
+    public void flush() {
+        if (this.enabled) {
+            this.flushPending();
+        }
+    }
+
+    /**
+     * Writes every pending document in the background, instead of waiting for it like {@link #flush()}.
+     * @return Completes once the documents pending now were written, or failed to be.
+     */
+    public CompletableFuture<Void> flushAsync() {
+        if (!this.enabled || this.closed) {
+            return CompletableFuture.completedFuture(null);  // Saves are written directly.
+        }
+        try {
+            return CompletableFuture.runAsync(this::flushQuietly, this.flushScheduler);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(null);  // Shutting down, which flushes everything anyway.
+        }
+    }
+
+    /**
+     * Writes everything still pending and stops the writer.
+     * Saves made afterwards are written directly.
+     */
+    public void shutdown() {
+        if (!this.enabled || this.closed) {
+            return;
+        }
+
+        this.closed = true;
+        this.flushScheduler.shutdown();
+        for (int i = 0; i < SHUTDOWN_ATTEMPTS && !this.pending.isEmpty(); i++) {
+            this.flushPending();
+        }
+        if (!this.pending.isEmpty()) {
+            Grasscutter.getLogger().error("Gave up on " + this.pending.size() + " pending database writes.");
+        }
+        this.ioPool.shutdown();
+    }
+
+    private void flushQuietly() {
+        try {
+            this.flushPending();
+        } catch (Exception e) {
+            Grasscutter.getLogger().error("Failed to flush pending database writes.", e);
+        }
+    }
+
+    // Only one flush runs at a time, so two versions of a document are never in flight together.
+    private synchronized void flushPending() {
+        if (this.pending.isEmpty()) {
+            return;
+        }
+
+        // Drain the queue, grouping writes by collection.
+        Map<Class<?>, List<QueuedWrite>> batches = new HashMap<>();
+        for (var entry : this.pending.entrySet()) {
+            DocumentKey key = entry.getKey();
+            PendingWrite write = entry.getValue();
+            // A newer save made meanwhile stays queued for the next flush.
+            this.pending.remove(key, write);
+
+            QueuedWrite queued = this.toWriteModel(key, write);
+            if (queued != null) {
+                batches.computeIfAbsent(key.type(), t -> new ArrayList<>()).add(queued);
+            }
+        }
+
+        CompletableFuture<?>[] futures = batches.entrySet().stream()
+            .map(batch -> CompletableFuture.runAsync(() -> this.write(batch.getKey(), batch.getValue()), this.ioPool))
+            .toArray(CompletableFuture[]::new);
+        CompletableFuture.allOf(futures).join();
+    }
+
+    private QueuedWrite toWriteModel(DocumentKey key, PendingWrite write) {
+        var filter = Filters.eq("_id", write.id());
+        if (write.document() == null) {
+            return new QueuedWrite(key, write, new DeleteOneModel<>(filter), null);
+        }
+
+        if (!this.isPartial(key.type())) {
+            return new QueuedWrite(key, write, new ReplaceOneModel<>(filter, write.document(), UPSERT), null);
+        }
+
+        DocumentFingerprint print = DocumentFingerprint.of(write.document());
+        DocumentFingerprint previous = this.written.get(key);
+        if (previous == null) {
+            // Nothing known about the stored version yet, write it in full.
+            return new QueuedWrite(key, write, new ReplaceOneModel<>(filter, write.document(), UPSERT), print);
+        }
+
+        BsonDocument update = previous.diff(print, write.document());
+        return update == null ? null : new QueuedWrite(key, write, new UpdateOneModel<>(filter, update), print);
+    }
+
+    private void write(Class<?> type, List<QueuedWrite> writes) {
+        // Indexes of the writes which failed, with their error codes; null if it is unknown which did.
+        Map<Integer, Integer> failed = Map.of();
+        try {
+            this.getCollection(type).bulkWrite(writes.stream().map(QueuedWrite::model).toList(), UNORDERED);
+        } catch (MongoBulkWriteException e) {
+            if (e.getWriteConcernError() != null) {
+                failed = null;
+            } else {
+                // Unordered, so every write but the reported ones went through.
+                failed = new HashMap<>();
+                for (BulkWriteError error : e.getWriteErrors()) {
+                    failed.put(error.getIndex(), error.getCode());
+                }
+            }
+            Grasscutter.getLogger().error("Failed to write " + (failed == null ? writes.size() : failed.size())
+                + " of " + writes.size() + " " + type.getSimpleName() + " documents.", e);
+        } catch (MongoSocketException | MongoTimeoutException e) {
+            failed = null;
+            Grasscutter.getLogger().error("Failed to write " + writes.size() + " " + type.getSimpleName() + " documents.", e);
+        } catch (Exception e) {
+            if (writes.size() > 1) {
+                // Failed before reaching the server, most likely on one bad document; find it by writing them one by one.
+                writes.forEach(write -> this.write(type, List.of(write)));
+                return;
+            }
+            failed = null;
+            Grasscutter.getLogger().error("Failed to write " + type.getSimpleName() + " " + writes.get(0).key().id() + ".", e);
+        }
+
+        for (int i = 0; i < writes.size(); i++) {
+            QueuedWrite write = writes.get(i);
+            if (failed == null || failed.containsKey(i)) {
+                this.retry(write, failed == null ? null : failed.get(i));
+            } else if (write.print() != null) {
+                this.written.put(write.key(), write.print());
+            } else {
+                this.written.remove(write.key());
+            }
+        }
+    }
+
+    /**
+     * Queues a failed write again, to be written in full on the next flush, unless a newer save has been queued meanwhile.
+     * Writes which cannot succeed, or failed too often, are dropped.
+     * @param code The server's error code, or null if unknown.
+     */
+    private void retry(QueuedWrite write, Integer code) {
+        // The stored version is unknown now.
+        this.written.remove(write.key());
+
+        int attempts = write.write().attempts() + 1;
+        if ((code != null && PERMANENT_ERRORS.contains(code)) || attempts >= MAX_ATTEMPTS) {
+            Grasscutter.getLogger().error("Gave up writing " + write.key().type().getSimpleName() + " " + write.key().id()
+                + " after " + attempts + " attempts" + (code != null ? ", error code " + code : "") + ".");
+            return;
+        }
+        PendingWrite previous = write.write();
+        this.pending.putIfAbsent(write.key(), new PendingWrite(previous.id(), previous.document(), attempts));
+    }
+
+    private boolean isPartial(Class<?> type) {
+        return this.partialTypeCache.computeIfAbsent(type,
+            t -> this.partialTypes.stream().anyMatch(partial -> partial.isAssignableFrom(t)));
+    }
+
+    private MongoCollection<BsonDocument> getCollection(Class<?> type) {
+        return this.collections.computeIfAbsent(type,
+            t -> this.datastore.getMapper().getCollection(t).withDocumentClass(BsonDocument.class));
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> BsonDocument encode(T entity) {
+        Codec<T> codec = (Codec<T>) this.datastore.getCodecRegistry().get(entity.getClass());
+        BsonDocument document = new BsonDocument();
+        codec.encode(new BsonDocumentWriter(document), entity, EncoderContext.builder().isEncodingCollectibleDocument(true).build());
+        return document;
+    }
+
+    private record DocumentKey(Class<?> type, Object id) {
+        DocumentKey {
+            Objects.requireNonNull(id);
+        }
+    }
+
+    private record PendingWrite(Object id, BsonDocument document, int attempts) { }
+
+    private record QueuedWrite(DocumentKey key, PendingWrite write, WriteModel<BsonDocument> model, DocumentFingerprint print) { }
+}
@@ -0,0 +1,158 @@
+package emu.grasscutter.database;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+
+import it.unimi.dsi.fastutil.objects.Object2LongMap;
+import it.unimi.dsi.fastutil.objects.Object2LongOpenHashMap;
+
+/**
+ * 64-bit fingerprints of the fields of a stored document.
+ * Top-level fields are fingerprinted as a whole, embedded documents one level deeper,
+ * so comparing against a newer version yields $set/$unset operators for just the changed fields.
+ */
+final class DocumentFingerprint {
+    private static final long SEED = 0x9E3779B97F4A7C15L;
+
+    /* Top-level field -> fingerprint, for fields stored whole. */
+    private final Object2LongMap<String> fields = new Object2LongOpenHashMap<>();
+    /* Top-level field -> fingerprints of its children, for embedded documents. */
+    private final Map<String, Object2LongMap<String>> documents = new HashMap<>();
+
+    static DocumentFingerprint of(BsonDocument document) {
+        DocumentFingerprint print = new DocumentFingerprint();
+        document.forEach((name, value) -> {
+            if (name.equals("_id")) {
+                return;
+            }
+
+            if (value.isDocument() && isSplittable(value.asDocument())) {
+                Object2LongMap<String> children = new Object2LongOpenHashMap<>();
+                value.asDocument().forEach((child, childValue) -> children.put(child, hash(childValue)));
+                print.documents.put(name, children);
+            } else {
+                print.fields.put(name, hash(value));
+            }
+        });
+        return print;
+    }
+
+    /**
+     * Builds the update operators which turn the stored document into a newer version.
+     * @param newer The fingerprint of the newer version.
+     * @param document The newer version.
+     * @return The update, or null if no field changed.
+     */
+    BsonDocument diff(DocumentFingerprint newer, BsonDocument document) {
+        BsonDocument set = new BsonDocument();
+        BsonDocument unset = new BsonDocument();
+
+        newer.fields.forEach((name, print) -> {
+            if (!this.fields.containsKey(name) || this.fields.getLong(name) != print) {
+                set.put(name, document.get(name));
+            }
+        });
+
+        newer.documents.forEach((name, children) -> {
+            Object2LongMap<String> old = this.documents.get(name);
+            if (old == null) {
+                // New, or previously stored whole - replace the field.
+                set.put(name, document.get(name));
+                return;
+            }
+
+            BsonDocument embedded = document.getDocument(name);
+            children.forEach((child, print) -> {
+                if (!old.containsKey(child) || old.getLong(child) != print) {
+                    set.put(name + "." + child, embedded.get(child));
+                }
+            });
+            old.keySet().forEach(child -> {
+                if (!children.containsKey(child)) {
+                    unset.put(name + "." + child, new BsonString(""));
+                }
+            });
+        });
+
+        // Fields which are gone entirely.
+        this.fields.keySet().forEach(name -> {
+            if (!newer.fields.containsKey(name) && !newer.documents.containsKey(name)) {
+                unset.put(name, new BsonString(""));
+            }
+        });
+        this.documents.keySet().forEach(name -> {
+            if (!newer.fields.containsKey(name) && !newer.documents.containsKey(name)) {
+                unset.put(name, new BsonString(""));
+            }
+        });
+
+        if (set.isEmpty() && unset.isEmpty()) {
+            return null;
+        }
+
+        BsonDocument update = new BsonDocument();
+        if (!set.isEmpty()) update.put("$set", set);
+        if (!unset.isEmpty()) update.put("$unset", unset);
+        return update;
+    }
+
+    // Dotted paths can only address keys without dots or a leading '$'; an empty document has nothing to split.
+    private static boolean isSplittable(BsonDocument document) {
+        if (document.isEmpty()) {
+            return false;
+        }
+        for (String key : document.keySet()) {
+            if (key.isEmpty() || key.indexOf('.') >= 0 || key.charAt(0) == '$') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long hash(BsonValue value) {
+        long h = mix(SEED, value.getBsonType().getValue());
+        switch (value.getBsonType()) {
+            case DOCUMENT -> {
+                for (var entry : value.asDocument().entrySet()) {
+                    h = mix(h, hash(entry.getKey()));
+                    h = mix(h, hash(entry.getValue()));
+                }
+            }
+            case ARRAY -> {
+                BsonArray array = value.asArray();
+                h = mix(h, array.size());
+                for (BsonValue element : array) {
+                    h = mix(h, hash(element));
+                }
+            }
+            case STRING -> h = mix(h, hash(value.asString().getValue()));
+            case INT32 -> h = mix(h, value.asInt32().getValue());
+            case INT64 -> h = mix(h, value.asInt64().getValue());
+            case DOUBLE -> h = mix(h, Double.doubleToLongBits(value.asDouble().getValue()));
+            case BOOLEAN -> h = mix(h, value.asBoolean().getValue() ? 1 : 0);
+            case DATE_TIME -> h = mix(h, value.asDateTime().getValue());
+            case NULL, UNDEFINED -> { }
+            default -> h = mix(h, hash(value.toString()));
+        }
+        return h;
+    }
+
+    private static long hash(String value) {
+        long h = SEED;
+        for (int i = 0; i < value.length(); i++) {
+            h = mix(h, value.charAt(i));
+        }
+        return mix(h, value.length());
+    }
+
+    private static long mix(long h, long value) {
+        h ^= value * 0xC2B2AE3D27D4EB4FL;
+        h = Long.rotateLeft(h, 31) * 0x9E3779B97F4A7C15L;
+        return h ^ (h >>> 29);
+    }
+}
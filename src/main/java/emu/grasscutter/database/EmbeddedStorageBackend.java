@@ -0,0 +1,553 @@
+package emu.grasscutter.database;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+import org.bson.BsonBinaryReader;
+import org.bson.BsonValue;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.configuration.CodecRegistry;
+import org.h2.mvstore.Cursor;
+import org.h2.mvstore.MVMap;
+import org.h2.mvstore.MVStore;
+
+import dev.morphia.annotations.Entity;
+import emu.grasscutter.Grasscutter;
+import emu.grasscutter.game.Account;
+import emu.grasscutter.game.activity.PlayerActivityData;
+import emu.grasscutter.game.activity.musicgame.MusicGameBeatmap;
+import emu.grasscutter.game.avatar.Avatar;
+import emu.grasscutter.game.battlepass.BattlePassManager;
+import emu.grasscutter.game.friends.Friendship;
+import emu.grasscutter.game.gacha.GachaRecord;
+import emu.grasscutter.game.home.GameHome;
+import emu.grasscutter.game.inventory.GameItem;
+import emu.grasscutter.game.mail.BroadcastMail;
+import emu.grasscutter.game.mail.Mail;
+import emu.grasscutter.game.player.Player;
+import emu.grasscutter.game.quest.GameMainQuest;
+
+/**
+ * Stores everything in a local MVStore file, for single-node servers and tests.
+ * Entities are stored as BSON produced by Morphia's codecs, so they map exactly as they do in MongoDB.
+ * Documents owned by a player are keyed "owner:id", so loading a player's data is a range scan.
+ */
+public final class EmbeddedStorageBackend implements StorageBackend {
+    private static final int INITIAL_COUNT = 10000;
+
+    private final MVStore store;
+    private final CodecRegistry codecs;
+
+    private final MVMap<String, Integer> counters;
+
+    private final Documents<Account> accounts;
+    private final MVMap<String, String> accountsByName;
+    private final MVMap<String, String> accountsByToken;
+    private final MVMap<String, String> accountsBySessionKey;
+    private final MVMap<String, String> accountsByPlayerId;
+
+    private final Documents<Player> players;
+    private final MVMap<String, String> playersByAccount;
+
+    private final Documents<Avatar> avatars;
+    private final Documents<GameItem> items;
+    private final Documents<Friendship> friendships;
+    private final MVMap<String, String> friendshipsByFriend;
+    private final Documents<GachaRecord> gachaRecords;
+    private final Documents<Mail> mail;
+    private final Documents<BroadcastMail> broadcastMail;
+    private final Documents<GameMainQuest> quests;
+    private final Documents<GameHome> homes;
+    private final Documents<BattlePassManager> battlePasses;
+    private final Documents<PlayerActivityData> activities;
+    private final Documents<MusicGameBeatmap> beatmaps;
+
+    public EmbeddedStorageBackend(String file, CodecRegistry codecs) {
+        this.store = new MVStore.Builder().fileName(file).compress().open();
+        this.codecs = codecs;
+
+        this.counters = this.store.openMap("counters");
+
+        this.accounts = new Documents<>(Account.class, null);
+        this.accountsByName = this.store.openMap("accounts.username");
+        this.accountsByToken = this.store.openMap("accounts.token");
+        this.accountsBySessionKey = this.store.openMap("accounts.sessionKey");
+        this.accountsByPlayerId = this.store.openMap("accounts.reservedPlayerId");
+
+        this.players = new Documents<>(Player.class, null);
+        this.playersByAccount = this.store.openMap("players.accountId");
+
+        this.avatars = new Documents<>(Avatar.class, "ownerId");
+        this.items = new Documents<>(GameItem.class, "ownerId");
+        this.friendships = new Documents<>(Friendship.class, "ownerId");
+        this.friendshipsByFriend = this.store.openMap("friendships.friendId");
+        this.gachaRecords = new Documents<>(GachaRecord.class, "ownerId");
+        this.mail = new Documents<>(Mail.class, "ownerUid");
+        this.broadcastMail = new Documents<>(BroadcastMail.class, null);
+        this.quests = new Documents<>(GameMainQuest.class, "ownerUid");
+        this.homes = new Documents<>(GameHome.class, "ownerUid");
+        this.battlePasses = new Documents<>(BattlePassManager.class, "ownerUid");
+        this.activities = new Documents<>(PlayerActivityData.class, "uid");
+        this.beatmaps = new Documents<>(MusicGameBeatmap.class, null);
+
+        Grasscutter.getLogger().info("Using embedded storage at " + file);
+    }
+
+    @Override
+    public int getNextId(String counter) {
+        this.counters.putIfAbsent(counter, INITIAL_COUNT);
+        return this.counters.merge(counter, 1, Integer::sum);
+    }
+
+    /* Accounts. */
+
+    @Override
+    public synchronized void saveAccount(Account account) {
+        Stored stored = this.accounts.put(account);
+        String id = account.getId();
+
+        reindex(this.accountsByName, stored.previous(), stored.current(), "username", id);
+        reindex(this.accountsByToken, stored.previous(), stored.current(), "token", id);
+        reindex(this.accountsBySessionKey, stored.previous(), stored.current(), "sessionKey", id);
+        reindex(this.accountsByPlayerId, stored.previous(), stored.current(), "reservedPlayerId", id);
+    }
+
+    @Override
+    public Account getAccountById(String id) {
+        return id == null ? null : this.accounts.get(id);
+    }
+
+    @Override
+    public Account getAccountByName(String username) {
+        return this.getAccountById(username == null ? null : this.accountsByName.get(username));
+    }
+
+    @Override
+    public Account getAccountByToken(String token) {
+        return this.getAccountById(token == null ? null : this.accountsByToken.get(token));
+    }
+
+    @Override
+    public Account getAccountBySessionKey(String sessionKey) {
+        return this.getAccountById(sessionKey == null ? null : this.accountsBySessionKey.get(sessionKey));
+    }
+
+    @Override
+    public Account getAccountByPlayerId(int playerId) {
+        return this.getAccountById(this.accountsByPlayerId.get(Integer.toString(playerId)));
+    }
+
+    @Override
+    public synchronized void deleteAccount(Account account) {
+        RawBsonDocument previous = this.accounts.removeKey(account.getId());
+        reindex(this.accountsByName, previous, null, "username", account.getId());
+        reindex(this.accountsByToken, previous, null, "token", account.getId());
+        reindex(this.accountsBySessionKey, previous, null, "sessionKey", account.getId());
+        reindex(this.accountsByPlayerId, previous, null, "reservedPlayerId", account.getId());
+    }
+
+    /* Players. */
+
+    @Override
+    public Player getPlayerByUid(int uid) {
+        return this.players.get(Integer.toString(uid));
+    }
+
+    @Override
+    public Player getPlayerByAccountId(String accountId, Class<? extends Player> playerClass) {
+        String uid = accountId == null ? null : this.playersByAccount.get(accountId);
+        return uid == null ? null : this.players.get(uid, playerClass);
+    }
+
+    @Override
+    public boolean checkIfPlayerExists(int uid) {
+        return this.players.map.containsKey(Integer.toString(uid));
+    }
+
+    @Override
+    public synchronized void savePlayer(Player player) {
+        Stored stored = this.players.put(player);
+        reindex(this.playersByAccount, stored.previous(), stored.current(), "accountId", Integer.toString(player.getUid()));
+    }
+
+    @Override
+    public void insertPlayer(Player player) {
+        this.savePlayer(player);
+    }
+
+    @Override
+    public synchronized void deletePlayerData(int uid) {
+        String owner = uid + ":";
+        for (Documents<?> documents : List.of(this.avatars, this.items, this.gachaRecords, this.mail,
+                this.quests, this.homes, this.battlePasses, this.activities)) {
+            documents.removePrefix(owner);
+        }
+
+        // Friendships in both directions.
+        for (Friendship friendship : this.friendships.scan(owner)) {
+            this.deleteFriendship(friendship);
+        }
+        for (Friendship friendship : this.getReverseFriends(uid)) {
+            this.deleteFriendship(friendship);
+        }
+
+        RawBsonDocument previous = this.players.removeKey(Integer.toString(uid));
+        reindex(this.playersByAccount, previous, null, "accountId", Integer.toString(uid));
+    }
+
+    @Override
+    public <T> Stream<T> getAll(Class<T> type) {
+        for (Documents<?> documents : List.of(this.accounts, this.players, this.avatars, this.items, this.friendships,
+                this.gachaRecords, this.mail, this.broadcastMail, this.quests, this.homes, this.battlePasses, this.activities,
+                this.beatmaps)) {
+            if (documents.type.isAssignableFrom(type)) {
+                return documents.stream(type);
+            }
+        }
+        throw new IllegalArgumentException(type.getName() + " is not stored.");
+    }
+
+    /* Owned documents. */
+
+    @Override
+    public List<Avatar> getAvatars(int ownerId) {
+        return this.avatars.scan(ownerId + ":");
+    }
+
+    @Override
+    public void saveAvatar(Avatar avatar) {
+        this.avatars.put(avatar);
+    }
+
+    @Override
+    public List<GameItem> getInventoryItems(int ownerId) {
+        return this.items.scan(ownerId + ":");
+    }
+
+    @Override
+    public List<GameItem> getEquippedItems(int ownerId) {
+        return this.getInventoryItems(ownerId).stream().filter(GameItem::isEquipped).toList();
+    }
+
+    @Override
+    public void saveItem(GameItem item) {
+        this.items.put(item);
+    }
+
+    @Override
+    public void deleteItem(GameItem item) {
+        this.items.remove(item);
+    }
+
+    @Override
+    public List<Friendship> getFriends(int ownerId) {
+        return this.friendships.scan(ownerId + ":");
+    }
+
+    @Override
+    public List<Friendship> getReverseFriends(int friendId) {
+        List<Friendship> result = new ArrayList<>();
+        String prefix = friendId + ":";
+        for (String key : keysWithPrefix(this.friendshipsByFriend, prefix)) {
+            Friendship friendship = this.friendships.get(key.substring(prefix.length()));
+            if (friendship != null) {
+                result.add(friendship);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public Friendship getFriendship(int ownerId, int friendId) {
+        return this.friendships.find(ownerId + ":", friendship -> friendship.getFriendId() == friendId);
+    }
+
+    @Override
+    public synchronized void saveFriendship(Friendship friendship) {
+        this.friendships.put(friendship);
+        this.friendshipsByFriend.put(friendship.getFriendId() + ":" + this.friendships.keyOf(friendship), "");
+    }
+
+    @Override
+    public synchronized void deleteFriendship(Friendship friendship) {
+        String key = this.friendships.keyOf(friendship);
+        if (key != null) {
+            this.friendships.map.remove(key);
+            this.friendshipsByFriend.remove(friendship.getFriendId() + ":" + key);
+        }
+    }
+
+    @Override
+    public List<GachaRecord> getGachaRecords(int ownerId, int gachaType, int skip, int limit) {
+        return this.gachaRecords.scan(ownerId + ":").stream()
+            .filter(record -> record.getGachaType() == gachaType)
+            .sorted(Comparator.comparing(GachaRecord::getTransactionDate, Comparator.nullsLast(Comparator.reverseOrder())))
+            .skip(skip)
+            .limit(limit)
+            .toList();
+    }
+
+    @Override
+    public long countGachaRecords(int ownerId, int gachaType) {
+        return this.gachaRecords.scan(ownerId + ":").stream()
+            .filter(record -> record.getGachaType() == gachaType)
+            .count();
+    }
+
+    @Override
+    public void saveGachaRecord(GachaRecord record) {
+        this.gachaRecords.put(record);
+    }
+
+    @Override
+    public List<Mail> getAllMail(int ownerUid) {
+        return this.mail.scan(ownerUid + ":");
+    }
+
+    @Override
+    public void saveMail(Mail mail) {
+        this.mail.put(mail);
+    }
+
+    @Override
+    public void deleteMail(Mail mail) {
+        this.mail.remove(mail);
+    }
+
+    @Override
+    public void saveBroadcastMail(BroadcastMail mail) {
+        this.broadcastMail.put(mail);
+    }
+
+    @Override
+    public List<GameMainQuest> getAllQuests(int ownerUid) {
+        return this.quests.scan(ownerUid + ":");
+    }
+
+    @Override
+    public void saveQuest(GameMainQuest quest) {
+        this.quests.put(quest);
+    }
+
+    @Override
+    public void deleteQuest(GameMainQuest quest) {
+        this.quests.remove(quest);
+    }
+
+    @Override
+    public GameHome getHomeByUid(long ownerUid) {
+        return this.homes.find(ownerUid + ":", home -> true);
+    }
+
+    @Override
+    public void saveHome(GameHome home) {
+        this.homes.put(home);
+    }
+
+    @Override
+    public BattlePassManager getBattlePass(int ownerUid) {
+        return this.battlePasses.find(ownerUid + ":", manager -> true);
+    }
+
+    @Override
+    public void saveBattlePass(BattlePassManager manager) {
+        this.battlePasses.put(manager);
+    }
+
+    @Override
+    public PlayerActivityData getPlayerActivityData(int uid, int activityId) {
+        return this.activities.find(uid + ":", data -> data.getActivityId() == activityId);
+    }
+
+    @Override
+    public void savePlayerActivityData(PlayerActivityData data) {
+        this.activities.put(data);
+    }
+
+    @Override
+    public MusicGameBeatmap getMusicGameBeatmap(long musicShareId) {
+        return this.beatmaps.get(Long.toString(musicShareId));
+    }
+
+    @Override
+    public void saveMusicGameBeatmap(MusicGameBeatmap beatmap) {
+        this.beatmaps.put(beatmap);
+    }
+
+    /* Lifecycle. */
+
+    @Override
+    public void flush() {
+        this.store.commit();
+    }
+
+    @Override
+    public void shutdown() {
+        // MVStore stays usable after a commit, so late saves are still stored by the background writer.
+        this.store.commit();
+    }
+
+    /* Internals. */
+
+    // Moves a secondary index entry when the indexed field of a document changed.
+    private static void reindex(MVMap<String, String> index, RawBsonDocument previous, RawBsonDocument current, String field, String id) {
+        String oldValue = indexValue(previous, field);
+        String newValue = indexValue(current, field);
+        if (Objects.equals(oldValue, newValue)) {
+            return;
+        }
+        if (oldValue != null) {
+            index.remove(oldValue, id);
+        }
+        if (newValue != null) {
+            index.put(newValue, id);
+        }
+    }
+
+    private static String indexValue(RawBsonDocument document, String field) {
+        if (document == null || !document.containsKey(field)) {
+            return null;
+        }
+        BsonValue value = document.get(field);
+        if (value.isNull() || (value.isNumber() && value.asNumber().longValue() == 0)) {
+            return null;
+        }
+        return toKey(value);
+    }
+
+    private static String toKey(BsonValue value) {
+        return switch (value.getBsonType()) {
+            case STRING -> value.asString().getValue();
+            case OBJECT_ID -> value.asObjectId().getValue().toHexString();
+            case INT32 -> Integer.toString(value.asInt32().getValue());
+            case INT64 -> Long.toString(value.asInt64().getValue());
+            default -> value.toString();
+        };
+    }
+
+    private static List<String> keysWithPrefix(MVMap<String, ?> map, String prefix) {
+        List<String> keys = new ArrayList<>();
+        Iterator<String> iterator = map.keyIterator(prefix);
+        while (iterator.hasNext()) {
+            String key = iterator.next();
+            if (!key.startsWith(prefix)) {
+                break;
+            }
+            keys.add(key);
+        }
+        return keys;
+    }
+
+    private static byte[] toBytes(RawBsonDocument document) {
+        org.bson.ByteBuf buffer = document.getByteBuffer();
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    /* A document as stored by a put, and the one it replaced. */
+    private record Stored(RawBsonDocument current, RawBsonDocument previous) { }
+
+    /**
+     * One collection: BSON documents keyed by id, or by "owner:id" when an owner field is given.
+     */
+    private final class Documents<T> {
+        private final Class<T> type;
+        private final String ownerField;
+        private final MVMap<String, byte[]> map;
+
+        private Documents(Class<T> type, String ownerField) {
+            this.type = type;
+            this.ownerField = ownerField;
+            this.map = store.openMap(type.getAnnotation(Entity.class).value());
+        }
+
+        private String keyOf(RawBsonDocument document) {
+            String id = toKey(document.get("_id"));
+            return this.ownerField == null ? id : toKey(document.get(this.ownerField)) + ":" + id;
+        }
+
+        private String keyOf(T entity) {
+            Object id = EntityIds.get(entity);
+            if (id == null) {
+                return null;
+            }
+            return this.keyOf(this.encode(entity));
+        }
+
+        private Stored put(T entity) {
+            if (EntityIds.getOrAssign(entity) == null) {
+                throw new IllegalArgumentException("Cannot store a " + this.type.getSimpleName() + " without an id.");
+            }
+
+            RawBsonDocument document = this.encode(entity);
+            byte[] old = this.map.put(this.keyOf(document), toBytes(document));
+            return new Stored(document, old == null ? null : new RawBsonDocument(old));
+        }
+
+        private void remove(T entity) {
+            String key = this.keyOf(entity);
+            if (key != null) {
+                this.map.remove(key);
+            }
+        }
+
+        private RawBsonDocument removeKey(String key) {
+            byte[] old = this.map.remove(key);
+            return old == null ? null : new RawBsonDocument(old);
+        }
+
+        private void removePrefix(String prefix) {
+            for (String key : keysWithPrefix(this.map, prefix)) {
+                this.map.remove(key);
+            }
+        }
+
+        private T get(String key) {
+            return this.get(key, this.type);
+        }
+
+        private <S extends T> S get(String key, Class<S> as) {
+            byte[] bytes = this.map.get(key);
+            return bytes == null ? null : this.decode(bytes, as);
+        }
+
+        private List<T> scan(String prefix) {
+            List<T> result = new ArrayList<>();
+            Cursor<String, byte[]> cursor = this.map.cursor(prefix);
+            while (cursor.hasNext()) {
+                String key = cursor.next();
+                if (!key.startsWith(prefix)) {
+                    break;
+                }
+                result.add(this.decode(cursor.getValue(), this.type));
+            }
+            return result;
+        }
+
+        private T find(String prefix, Predicate<T> filter) {
+            return this.scan(prefix).stream().filter(filter).findFirst().orElse(null);
+        }
+
+        private <S> Stream<S> stream(Class<S> as) {
+            return this.map.values().stream().map(bytes -> this.decode(bytes, as));
+        }
+
+        @SuppressWarnings("unchecked")
+        private RawBsonDocument encode(T entity) {
+            return new RawBsonDocument(entity, (Codec<T>) codecs.get(entity.getClass()));
+        }
+
+        private <S> S decode(byte[] bytes, Class<S> as) {
+            return codecs.get(as).decode(new BsonBinaryReader(ByteBuffer.wrap(bytes)), DecoderContext.builder().build());
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package emu.grasscutter.database;
+
+import java.lang.reflect.Field;
+
+import org.bson.types.ObjectId;
+
+import dev.morphia.annotations.Id;
+
+/**
+ * Reads and assigns the @Id field of entities.
+ */
+final class EntityIds {
+    private static final ClassValue<Field> idFields = new ClassValue<>() {
+        @Override
+        protected Field computeValue(Class<?> type) {
+            for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+                for (Field field : c.getDeclaredFields()) {
+                    if (field.isAnnotationPresent(Id.class)) {
+                        field.setAccessible(true);
+                        return field;
+                    }
+                }
+            }
+            throw new IllegalArgumentException(type.getName() + " has no @Id field.");
+        }
+    };
+
+    private EntityIds() { }
+
+    static Object get(Object entity) {
+        try {
+            return idFields.get(entity.getClass()).get(entity);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Gets the id of an entity, generating one first if it has none.
+     * @return The id, or null if it has none and ids of its type cannot be generated.
+     */
+    static Object getOrAssign(Object entity) {
+        Field field = idFields.get(entity.getClass());
+        try {
+            Object id = field.get(entity);
+            if (id == null) {
+                if (field.getType() == ObjectId.class) {
+                    id = new ObjectId();
+                } else if (field.getType() == String.class) {
+                    id = new ObjectId().toHexString();
+                } else {
+                    return null;
+                }
+                field.set(entity, id);
+            }
+            return id;
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
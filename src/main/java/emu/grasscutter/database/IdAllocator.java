@@ -0,0 +1,94 @@
+package emu.grasscutter.database;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.bson.Document;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.FindOneAndUpdateOptions;
+import com.mongodb.client.model.ReturnDocument;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.Updates;
+
+import static com.mongodb.client.model.Filters.eq;
+
+/**
+ * Hands out ids from blocks leased off the counters collection.
+ * Each lease is a single atomic $inc, so processes sharing a database never get overlapping blocks,
+ * and ids within a block are handed out without locking.
+ */
+public final class IdAllocator {
+    /* The value a new counter starts at, the first id handed out is one higher. */
+    private static final int INITIAL_COUNT = 10000;
+
+    private final MongoCollection<Document> counters;
+    private final int blockSize;
+    private final Map<String, Counter> blocks = new ConcurrentHashMap<>();
+
+    public IdAllocator(MongoCollection<Document> counters, int blockSize) {
+        this.counters = counters;
+        this.blockSize = Math.max(1, blockSize);
+    }
+
+    /**
+     * Gets the next id of the given counter.
+     * @param name The counter, usually the simple name of the entity class.
+     * @return The id.
+     */
+    public int next(String name) {
+        return this.blocks.computeIfAbsent(name, Counter::new).next();
+    }
+
+    private final class Counter {
+        private final String name;
+        private volatile Block block = new Block(0, 0);
+        private boolean initialized = false;
+
+        private Counter(String name) {
+            this.name = name;
+        }
+
+        private int next() {
+            while (true) {
+                Block current = this.block;
+                int id = current.next.getAndIncrement();
+                if (id < current.end) {
+                    return id;
+                }
+
+                synchronized (this) {
+                    // Another thread may have leased a new block meanwhile.
+                    if (this.block == current) {
+                        this.block = this.lease();
+                    }
+                }
+            }
+        }
+
+        private Block lease() {
+            if (!this.initialized) {
+                // Creates the counter if it does not exist yet, existing counters are left alone.
+                counters.updateOne(eq("_id", this.name), Updates.setOnInsert("count", INITIAL_COUNT),
+                    new UpdateOptions().upsert(true));
+                this.initialized = true;
+            }
+
+            Document counter = counters.findOneAndUpdate(eq("_id", this.name), Updates.inc("count", blockSize),
+                new FindOneAndUpdateOptions().upsert(true).returnDocument(ReturnDocument.AFTER));
+            int last = counter.getInteger("count");
+            return new Block(last - blockSize + 1, last + 1);
+        }
+    }
+
+    private static final class Block {
+        private final AtomicInteger next;
+        private final int end;
+
+        private Block(int start, int end) {
+            this.next = new AtomicInteger(start);
+            this.end = end;
+        }
+    }
+}
@@ -0,0 +1,328 @@
+package emu.grasscutter.database;
+
+import static com.mongodb.client.model.Filters.eq;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+
+import com.mongodb.client.MongoDatabase;
+
+import dev.morphia.Datastore;
+import dev.morphia.query.FindOptions;
+import dev.morphia.query.Sort;
+import dev.morphia.query.experimental.filters.Filters;
+import emu.grasscutter.game.Account;
+import emu.grasscutter.game.activity.PlayerActivityData;
+import emu.grasscutter.game.activity.musicgame.MusicGameBeatmap;
+import emu.grasscutter.game.avatar.Avatar;
+import emu.grasscutter.game.battlepass.BattlePassManager;
+import emu.grasscutter.game.friends.Friendship;
+import emu.grasscutter.game.gacha.GachaRecord;
+import emu.grasscutter.game.home.GameHome;
+import emu.grasscutter.game.inventory.GameItem;
+import emu.grasscutter.game.mail.BroadcastMail;
+import emu.grasscutter.game.mail.Mail;
+import emu.grasscutter.game.player.Player;
+import emu.grasscutter.game.quest.GameMainQuest;
+
+/**
+ * Stores everything in MongoDB through Morphia.
+ * Game documents are written behind through a {@link DatabaseWriter}.
+ */
+public final class MongoStorageBackend implements StorageBackend {
+    private final Datastore gameDatastore;
+    private final Datastore accountDatastore;
+    private final DatabaseWriter writer;
+    private final IdAllocator idAllocator;
+
+    public MongoStorageBackend(Datastore gameDatastore, Datastore accountDatastore, DatabaseWriter writer, IdAllocator idAllocator) {
+        this.gameDatastore = gameDatastore;
+        this.accountDatastore = accountDatastore;
+        this.writer = writer;
+        this.idAllocator = idAllocator;
+    }
+
+    @Override
+    public int getNextId(String counter) {
+        return this.idAllocator.next(counter);
+    }
+
+    @Override
+    public void saveAccount(Account account) {
+        this.accountDatastore.save(account);
+    }
+
+    @Override
+    public Account getAccountById(String id) {
+        return this.accountDatastore.find(Account.class).filter(Filters.eq("_id", id)).first();
+    }
+
+    @Override
+    public Account getAccountByName(String username) {
+        return this.accountDatastore.find(Account.class).filter(Filters.eq("username", username)).first();
+    }
+
+    @Override
+    public Account getAccountByToken(String token) {
+        return this.accountDatastore.find(Account.class).filter(Filters.eq("token", token)).first();
+    }
+
+    @Override
+    public Account getAccountBySessionKey(String sessionKey) {
+        return this.accountDatastore.find(Account.class).filter(Filters.eq("sessionKey", sessionKey)).first();
+    }
+
+    @Override
+    public Account getAccountByPlayerId(int playerId) {
+        return this.accountDatastore.find(Account.class).filter(Filters.eq("reservedPlayerId", playerId)).first();
+    }
+
+    @Override
+    public void deleteAccount(Account account) {
+        this.accountDatastore.find(Account.class).filter(Filters.eq("id", account.getId())).delete();
+    }
+
+    @Override
+    public Player getPlayerByUid(int uid) {
+        return this.gameDatastore.find(Player.class).filter(Filters.eq("_id", uid)).first();
+    }
+
+    @Override
+    public Player getPlayerByAccountId(String accountId, Class<? extends Player> playerClass) {
+        return this.gameDatastore.find(playerClass).filter(Filters.eq("accountId", accountId)).first();
+    }
+
+    @Override
+    public boolean checkIfPlayerExists(int uid) {
+        return this.gameDatastore.find(Player.class).filter(Filters.eq("_id", uid)).count() > 0;
+    }
+
+    @Override
+    public void savePlayer(Player player) {
+        this.writer.save(player);
+    }
+
+    @Override
+    public void insertPlayer(Player player) {
+        this.writer.evict(player);
+        this.gameDatastore.save(player);
+    }
+
+    @Override
+    public void deletePlayerData(int uid) {
+        // Make sure no queued save recreates the documents deleted below.
+        this.writer.flush();
+
+        // This should optimally be wrapped inside a transaction, to make sure an error thrown mid-way does not leave the
+        // database in an inconsistent state, but unfortunately Mongo only supports that when we have a replica set ...
+        MongoDatabase database = this.gameDatastore.getDatabase();
+        database.getCollection("activities").deleteMany(eq("uid", uid));
+        database.getCollection("homes").deleteMany(eq("ownerUid", uid));
+        database.getCollection("mail").deleteMany(eq("ownerUid", uid));
+        database.getCollection("avatars").deleteMany(eq("ownerId", uid));
+        database.getCollection("gachas").deleteMany(eq("ownerId", uid));
+        database.getCollection("items").deleteMany(eq("ownerId", uid));
+        database.getCollection("quests").deleteMany(eq("ownerUid", uid));
+        database.getCollection("battlepass").deleteMany(eq("ownerUid", uid));
+
+        // Delete friendships.
+        // Here, we need to make sure to not only delete the deleted account's friendships,
+        // but also all friendship entries for that account's friends.
+        database.getCollection("friendships").deleteMany(eq("ownerId", uid));
+        database.getCollection("friendships").deleteMany(eq("friendId", uid));
+
+        // Delete the player last.
+        this.gameDatastore.find(Player.class).filter(Filters.eq("id", uid)).delete();
+    }
+
+    @Override
+    public <T> Stream<T> getAll(Class<T> type) {
+        return this.gameDatastore.find(type).stream();
+    }
+
+    @Override
+    public List<Avatar> getAvatars(int ownerId) {
+        return this.gameDatastore.find(Avatar.class).filter(Filters.eq("ownerId", ownerId)).stream().toList();
+    }
+
+    @Override
+    public void saveAvatar(Avatar avatar) {
+        this.writer.save(avatar);
+    }
+
+    @Override
+    public List<GameItem> getInventoryItems(int ownerId) {
+        return this.gameDatastore.find(GameItem.class).filter(Filters.eq("ownerId", ownerId)).stream().toList();
+    }
+
+    @Override
+    public List<GameItem> getEquippedItems(int ownerId) {
+        return this.gameDatastore.find(GameItem.class).filter(
+            Filters.eq("ownerId", ownerId),
+            Filters.gt("equipCharacter", 0)
+        ).stream().toList();
+    }
+
+    @Override
+    public void saveItem(GameItem item) {
+        this.writer.save(item);
+    }
+
+    @Override
+    public void deleteItem(GameItem item) {
+        this.writer.delete(item);
+    }
+
+    @Override
+    public List<Friendship> getFriends(int ownerId) {
+        return this.gameDatastore.find(Friendship.class).filter(Filters.eq("ownerId", ownerId)).stream().toList();
+    }
+
+    @Override
+    public List<Friendship> getReverseFriends(int friendId) {
+        return this.gameDatastore.find(Friendship.class).filter(Filters.eq("friendId", friendId)).stream().toList();
+    }
+
+    @Override
+    public Friendship getFriendship(int ownerId, int friendId) {
+        return this.gameDatastore.find(Friendship.class).filter(Filters.and(
+                Filters.eq("ownerId", ownerId),
+                Filters.eq("friendId", friendId)
+        )).first();
+    }
+
+    @Override
+    public void saveFriendship(Friendship friendship) {
+        this.gameDatastore.save(friendship);
+    }
+
+    @Override
+    public void deleteFriendship(Friendship friendship) {
+        this.gameDatastore.delete(friendship);
+    }
+
+    @Override
+    public List<GachaRecord> getGachaRecords(int ownerId, int gachaType, int skip, int limit) {
+        return this.gameDatastore.find(GachaRecord.class).filter(
+            Filters.eq("ownerId", ownerId),
+            Filters.eq("gachaType", gachaType)
+        ).iterator(new FindOptions()
+                .sort(Sort.descending("transactionDate"))
+                .skip(skip)
+                .limit(limit)
+        ).toList();
+    }
+
+    @Override
+    public long countGachaRecords(int ownerId, int gachaType) {
+        return this.gameDatastore.find(GachaRecord.class).filter(
+            Filters.eq("ownerId", ownerId),
+            Filters.eq("gachaType", gachaType)
+        ).count();
+    }
+
+    @Override
+    public void saveGachaRecord(GachaRecord record) {
+        this.gameDatastore.save(record);
+    }
+
+    @Override
+    public List<Mail> getAllMail(int ownerUid) {
+        return this.gameDatastore.find(Mail.class).filter(Filters.eq("ownerUid", ownerUid)).stream().toList();
+    }
+
+    @Override
+    public void saveMail(Mail mail) {
+        this.writer.save(mail);
+    }
+
+    @Override
+    public void deleteMail(Mail mail) {
+        this.writer.delete(mail);
+    }
+
+    @Override
+    public void saveBroadcastMail(BroadcastMail mail) {
+        this.gameDatastore.save(mail);
+    }
+
+    @Override
+    public List<GameMainQuest> getAllQuests(int ownerUid) {
+        return this.gameDatastore.find(GameMainQuest.class).filter(Filters.eq("ownerUid", ownerUid)).stream().toList();
+    }
+
+    @Override
+    public void saveQuest(GameMainQuest quest) {
+        this.writer.save(quest);
+    }
+
+    @Override
+    public void deleteQuest(GameMainQuest quest) {
+        this.writer.delete(quest);
+    }
+
+    @Override
+    public GameHome getHomeByUid(long ownerUid) {
+        return this.gameDatastore.find(GameHome.class).filter(Filters.eq("ownerUid", ownerUid)).first();
+    }
+
+    @Override
+    public void saveHome(GameHome home) {
+        this.writer.save(home);
+    }
+
+    @Override
+    public BattlePassManager getBattlePass(int ownerUid) {
+        return this.gameDatastore.find(BattlePassManager.class).filter(Filters.eq("ownerUid", ownerUid)).first();
+    }
+
+    @Override
+    public void saveBattlePass(BattlePassManager manager) {
+        this.writer.save(manager);
+    }
+
+    @Override
+    public PlayerActivityData getPlayerActivityData(int uid, int activityId) {
+        return this.gameDatastore.find(PlayerActivityData.class)
+            .filter(Filters.and(Filters.eq("uid", uid), Filters.eq("activityId", activityId)))
+            .first();
+    }
+
+    @Override
+    public void savePlayerActivityData(PlayerActivityData data) {
+        this.writer.save(data);
+    }
+
+    @Override
+    public MusicGameBeatmap getMusicGameBeatmap(long musicShareId) {
+        return this.gameDatastore.find(MusicGameBeatmap.class)
+            .filter(Filters.eq("musicShareId", musicShareId))
+            .first();
+    }
+
+    @Override
+    public void saveMusicGameBeatmap(MusicGameBeatmap beatmap) {
+        this.gameDatastore.save(beatmap);
+    }
+
+    @Override
+    public void flush() {
+        this.writer.flush();
+    }
+
+    @Override
+    public CompletableFuture<Void> flushAsync() {
+        return this.writer.flushAsync();
+    }
+
+    @Override
+    public void evict(Object entity) {
+        this.writer.evict(entity);
+    }
+
+    @Override
+    public void shutdown() {
+        this.writer.shutdown();
+    }
+}
@@ -0,0 +1,158 @@
+package emu.grasscutter.database;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+
+import emu.grasscutter.game.Account;
+import emu.grasscutter.game.activity.PlayerActivityData;
+import emu.grasscutter.game.activity.musicgame.MusicGameBeatmap;
+import emu.grasscutter.game.avatar.Avatar;
+import emu.grasscutter.game.battlepass.BattlePassManager;
+import emu.grasscutter.game.friends.Friendship;
+import emu.grasscutter.game.gacha.GachaRecord;
+import emu.grasscutter.game.home.GameHome;
+import emu.grasscutter.game.inventory.GameItem;
+import emu.grasscutter.game.mail.BroadcastMail;
+import emu.grasscutter.game.mail.Mail;
+import emu.grasscutter.game.player.Player;
+import emu.grasscutter.game.quest.GameMainQuest;
+
+/**
+ * Where accounts and game data are stored.
+ * {@link DatabaseHelper} is the entry point for the rest of the server; this is what it delegates to.
+ */
+public interface StorageBackend {
+    /* Ids. */
+
+    int getNextId(String counter);
+
+    /* Accounts. */
+
+    void saveAccount(Account account);
+
+    Account getAccountById(String id);
+
+    Account getAccountByName(String username);
+
+    Account getAccountByToken(String token);
+
+    Account getAccountBySessionKey(String sessionKey);
+
+    Account getAccountByPlayerId(int playerId);
+
+    void deleteAccount(Account account);
+
+    /* Players. */
+
+    Player getPlayerByUid(int uid);
+
+    Player getPlayerByAccountId(String accountId, Class<? extends Player> playerClass);
+
+    boolean checkIfPlayerExists(int uid);
+
+    void savePlayer(Player player);
+
+    /**
+     * Stores a new player right away, bypassing any write batching.
+     */
+    void insertPlayer(Player player);
+
+    /**
+     * Deletes a player and every document owned by them.
+     */
+    void deletePlayerData(int uid);
+
+    <T> Stream<T> getAll(Class<T> type);
+
+    /* Owned documents. */
+
+    List<Avatar> getAvatars(int ownerId);
+
+    void saveAvatar(Avatar avatar);
+
+    List<GameItem> getInventoryItems(int ownerId);
+
+    /**
+     * Gets only the items which are equipped to an avatar.
+     */
+    List<GameItem> getEquippedItems(int ownerId);
+
+    void saveItem(GameItem item);
+
+    void deleteItem(GameItem item);
+
+    List<Friendship> getFriends(int ownerId);
+
+    List<Friendship> getReverseFriends(int friendId);
+
+    Friendship getFriendship(int ownerId, int friendId);
+
+    void saveFriendship(Friendship friendship);
+
+    void deleteFriendship(Friendship friendship);
+
+    /**
+     * Gets a page of gacha records, newest first.
+     */
+    List<GachaRecord> getGachaRecords(int ownerId, int gachaType, int skip, int limit);
+
+    long countGachaRecords(int ownerId, int gachaType);
+
+    void saveGachaRecord(GachaRecord record);
+
+    List<Mail> getAllMail(int ownerUid);
+
+    void saveMail(Mail mail);
+
+    void deleteMail(Mail mail);
+
+    void saveBroadcastMail(BroadcastMail mail);
+
+    List<GameMainQuest> getAllQuests(int ownerUid);
+
+    void saveQuest(GameMainQuest quest);
+
+    void deleteQuest(GameMainQuest quest);
+
+    GameHome getHomeByUid(long ownerUid);
+
+    void saveHome(GameHome home);
+
+    BattlePassManager getBattlePass(int ownerUid);
+
+    void saveBattlePass(BattlePassManager manager);
+
+    PlayerActivityData getPlayerActivityData(int uid, int activityId);
+
+    void savePlayerActivityData(PlayerActivityData data);
+
+    MusicGameBeatmap getMusicGameBeatmap(long musicShareId);
+
+    void saveMusicGameBeatmap(MusicGameBeatmap beatmap);
+
+    /* Lifecycle. */
+
+    /**
+     * Makes sure every save made so far is stored.
+     */
+    default void flush() { }
+
+    /**
+     * Like {@link #flush()}, without waiting for it.
+     * @return Completes once every save made so far is stored.
+     */
+    default CompletableFuture<Void> flushAsync() {
+        return CompletableFuture.runAsync(this::flush);
+    }
+
+    /**
+     * Drops anything cached about an entity which is no longer in use.
+     */
+    default void evict(Object entity) { }
+
+    /**
+     * Stores everything still pending and releases the backend. Saves made afterwards are still stored.
+     */
+    default void shutdown() { }
+}
@@ -127,8 +127,10 @@ public class AvatarStorage extends BasePlayerManager implements Iterable<Avatar>
     }
 
     public void loadFromDatabase() {
-        List<Avatar> avatars = DatabaseHelper.getAvatars(getPlayer());
+        this.loadFromDatabase(DatabaseHelper.getAvatars(getPlayer()));
+    }
 
+    public void loadFromDatabase(List<Avatar> avatars) {
         for (Avatar avatar : avatars) {
             // Should never happen
             if (avatar.getObjectId() == null) {
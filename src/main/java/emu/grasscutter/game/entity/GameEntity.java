@@ -29,9 +29,10 @@ public abstract class GameEntity {
     @Getter private final Scene scene;
     @Getter @Setter private SpawnDataEntry spawnEntry;
 
-    @Getter @Setter private int blockId;
-    @Getter @Setter private int configId;
-    @Getter @Setter private int groupId;
+    // Indexed by the scene, see setIndexed
+    @Getter private int blockId;
+    @Getter private int configId;
+    @Getter private int groupId;
 
     @Getter @Setter private MotionState motionState;
     @Getter @Setter private int lastMoveSceneTimeMs;
@@ -48,6 +49,26 @@ public abstract class GameEntity {
         this.motionState = MotionState.MOTION_STATE_NONE;
     }
 
+    public void setBlockId(int blockId) {
+        this.setIndexed(() -> this.blockId = blockId);
+    }
+
+    public void setConfigId(int configId) {
+        this.setIndexed(() -> this.configId = configId);
+    }
+
+    public void setGroupId(int groupId) {
+        this.setIndexed(() -> this.groupId = groupId);
+    }
+
+    private void setIndexed(Runnable change) {
+        if (this.getScene() != null) {
+            this.getScene().updateEntityIndex(this, change);
+        } else {
+            change.run();
+        }
+    }
+
     public int getEntityType() {
         return this.getId() >> 24;
     }
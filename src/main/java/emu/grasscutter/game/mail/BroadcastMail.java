@@ -0,0 +1,55 @@
+package emu.grasscutter.game.mail;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import dev.morphia.annotations.Entity;
+import dev.morphia.annotations.Id;
+import lombok.Getter;
+
+/**
+ * A mail sent to every player. It is stored once; each player gets their own copy
+ * the next time they come online, see {@link MailHandler#receiveBroadcasts()}.
+ */
+@Entity(value = "broadcast_mail", useDiscriminator = false)
+public class BroadcastMail {
+    @Id @Getter private int id;
+    private Mail.MailContent mailContent;
+    private List<Mail.MailItem> itemList;
+    @Getter private long sendTime;
+    @Getter private long expireTime;
+    private int importance;
+    private int stateValue;
+
+    @Deprecated // Morphia only
+    public BroadcastMail() { }
+
+    public BroadcastMail(int id, Mail template) {
+        this.id = id;
+        this.mailContent = template.mailContent;
+        this.itemList = template.itemList;
+        this.sendTime = template.sendTime;
+        this.expireTime = template.expireTime;
+        this.importance = template.importance;
+        this.stateValue = template.stateValue;
+    }
+
+    public boolean isExpired() {
+        return this.expireTime * 1000 < System.currentTimeMillis();
+    }
+
+    /**
+     * Creates a player's copy of this mail.
+     */
+    public Mail toMail() {
+        List<Mail.MailItem> items = new ArrayList<>(this.itemList.size());
+        for (Mail.MailItem item : this.itemList) {
+            items.add(new Mail.MailItem(item.itemId, item.itemCount, item.itemLevel));
+        }
+
+        Mail mail = new Mail(new Mail.MailContent(this.mailContent.title, this.mailContent.content, this.mailContent.sender),
+            items, this.expireTime, this.importance, this.stateValue);
+        mail.sendTime = this.sendTime;
+        return mail;
+    }
+}
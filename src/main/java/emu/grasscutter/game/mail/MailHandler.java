@@ -44,6 +44,25 @@ public class MailHandler extends BasePlayerManager {
         } // TODO: setup a way for the mail notification to show up when someone receives mail when they were offline
     }
 
+    /**
+     * Delivers the broadcast mail this player has not received yet.
+     */
+    public void receiveBroadcasts() {
+        List<BroadcastMail> broadcasts = this.getPlayer().getServer().getMailSystem()
+            .getBroadcastsAfter(this.getPlayer().getLastBroadcastMailId());
+        if (broadcasts.isEmpty()) {
+            return;
+        }
+
+        for (BroadcastMail broadcast : broadcasts) {
+            if (!broadcast.isExpired()) {
+                this.sendMail(broadcast.toMail());
+            }
+            this.getPlayer().setLastBroadcastMailId(broadcast.getId());
+        }
+        this.getPlayer().save();
+    }
+
     public boolean deleteMail(int mailId) {
         Mail message = getMailById(mailId);
 
@@ -92,8 +111,10 @@ public class MailHandler extends BasePlayerManager {
     }
 
     public void loadFromDatabase() {
-        List<Mail> mailList = DatabaseHelper.getAllMail(this.getPlayer());
+        this.loadFromDatabase(DatabaseHelper.getAllMail(this.getPlayer()));
+    }
 
+    public void loadFromDatabase(List<Mail> mailList) {
         for (Mail mail : mailList) {
             this.getMail().add(mail);
         }
@@ -0,0 +1,77 @@
+package emu.grasscutter.game.mail;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import emu.grasscutter.Grasscutter;
+import emu.grasscutter.database.DatabaseHelper;
+import emu.grasscutter.database.DatabaseManager;
+import emu.grasscutter.game.player.Player;
+import emu.grasscutter.server.game.BaseGameSystem;
+import emu.grasscutter.server.game.GameServer;
+
+/**
+ * Sends mail to every player.
+ * A broadcast is a single stored template; players pick it up through {@link MailHandler#receiveBroadcasts()},
+ * right away if they are online and otherwise on their next login.
+ */
+public class MailSystem extends BaseGameSystem {
+    /* Sorted by id, which is also the order they were sent in. */
+    private volatile List<BroadcastMail> broadcasts;
+
+    public MailSystem(GameServer server) {
+        super(server);
+
+        this.broadcasts = DatabaseHelper.getByGameClass(BroadcastMail.class)
+            .filter(broadcast -> !broadcast.isExpired())
+            .sorted(Comparator.comparingInt(BroadcastMail::getId))
+            .toList();
+    }
+
+    /**
+     * Sends a mail to all players, current and existing.
+     * @param template The mail, every player gets their own copy.
+     */
+    public void broadcast(Mail template) {
+        BroadcastMail broadcast = new BroadcastMail(DatabaseManager.getNextId(BroadcastMail.class), template);
+        DatabaseHelper.saveBroadcastMail(broadcast);
+
+        synchronized (this) {
+            List<BroadcastMail> updated = new ArrayList<>(this.broadcasts.size() + 1);
+            for (BroadcastMail existing : this.broadcasts) {
+                if (!existing.isExpired()) {
+                    updated.add(existing);
+                }
+            }
+            updated.add(broadcast);
+            this.broadcasts = List.copyOf(updated);
+        }
+
+        for (Player player : this.getServer().getPlayers().values()) {
+            player.getSession().getLogicExecutor().execute(() -> player.getMailHandler().receiveBroadcasts());
+        }
+        Grasscutter.getLogger().info("Broadcast mail " + broadcast.getId() + " sent.");
+    }
+
+    /**
+     * Gets the broadcasts sent after the given one.
+     * @param lastId The id of the last broadcast received.
+     * @return The newer broadcasts, oldest first.
+     */
+    public List<BroadcastMail> getBroadcastsAfter(int lastId) {
+        List<BroadcastMail> broadcasts = this.broadcasts;
+        if (broadcasts.isEmpty() || broadcasts.get(broadcasts.size() - 1).getId() <= lastId) {
+            return List.of();
+        }
+        return broadcasts.stream().filter(broadcast -> broadcast.getId() > lastId).toList();
+    }
+
+    /**
+     * @return The id of the newest broadcast, or 0 if there is none.
+     */
+    public int getLastBroadcastId() {
+        List<BroadcastMail> broadcasts = this.broadcasts;
+        return broadcasts.isEmpty() ? 0 : broadcasts.get(broadcasts.size() - 1).getId();
+    }
+}
@@ -9,12 +9,12 @@ import emu.grasscutter.game.props.FightProperty;
 import emu.grasscutter.game.props.PlayerProperty;
 import emu.grasscutter.net.proto.ChangeHpReasonOuterClass.ChangeHpReason;
 import emu.grasscutter.net.proto.PropChangeReasonOuterClass.PropChangeReason;
+import emu.grasscutter.server.game.LogicTimer;
 import emu.grasscutter.server.packet.send.PacketEntityFightPropChangeReasonNotify;
 import emu.grasscutter.server.packet.send.PacketEntityFightPropUpdateNotify;
 
 import java.util.List;
-import java.util.Timer;
-import java.util.TimerTask;
+import java.util.concurrent.TimeUnit;
 
 // Statue of the Seven Manager
 public class SotSManager extends BasePlayerManager {
@@ -22,7 +22,7 @@ public class SotSManager extends BasePlayerManager {
     // NOTE: Spring volume balance *1  = fight prop HP *100
 
     private final Logger logger = Grasscutter.getLogger();
-    private Timer autoRecoverTimer;
+    private LogicTimer.RepeatingTask autoRecoverTimer;
     private final boolean enablePriorityHealing = false;
 
     public final static int GlobalMaximumSpringVolume = PlayerProperty.PROP_MAX_SPRING_VOLUME.getMax();
@@ -81,13 +81,17 @@ public class SotSManager extends BasePlayerManager {
         logger.trace("Player entered statue region");
         autoRevive();
         if (autoRecoverTimer == null) {
-            autoRecoverTimer = new Timer();
-            autoRecoverTimer.schedule(new AutoRecoverTimerTick(), 2500, 15000);
+            autoRecoverTimer = LogicTimer.scheduleAtFixedRate(player.getSession().getLogicExecutor(),
+                new AutoRecoverTimerTick(), 2500, 15000, TimeUnit.MILLISECONDS);
         }
     }
 
     public void handleExitTransPointRegionNotify() {
         logger.trace("Player left statue region");
+        stopAutoRecoverTimer();
+    }
+
+    public void stopAutoRecoverTimer() {
         if (autoRecoverTimer != null) {
             autoRecoverTimer.cancel();
             autoRecoverTimer = null;
@@ -107,7 +111,7 @@ public class SotSManager extends BasePlayerManager {
         });
     }
 
-    private class AutoRecoverTimerTick extends TimerTask {
+    private class AutoRecoverTimerTick implements Runnable {
         // autoRecover checks player setting to see if auto recover is enabled, and refill HP to the predefined level.
         public void run() {
             refillSpringVolume();
@@ -128,8 +128,8 @@ public class BlossomManager {
         final var worldLevelData = GameData.getWorldLevelDataMap().get(worldLevel);
         final int monsterLevel = (worldLevelData != null) ? worldLevelData.getMonsterLevel() : 1;
         List<BlossomBriefInfoOuterClass.BlossomBriefInfo> blossoms = new ArrayList<>();
-        GameDepot.getSpawnLists().forEach((gridBlockId, spawnDataEntryList) -> {
-            int sceneId = gridBlockId.getSceneId();
+        GameDepot.getSpawnLists().forEach((gridBlockKey, spawnDataEntryList) -> {
+            int sceneId = SpawnDataEntry.GridBlockId.fromKey(gridBlockKey).getSceneId();
             spawnDataEntryList.stream()
                 .map(SpawnDataEntry::getGroup)
                 .map(SpawnGroupEntry::getSpawns)
@@ -18,6 +18,7 @@ import emu.grasscutter.net.proto.PlayerDieTypeOuterClass.PlayerDieType;
 import emu.grasscutter.net.proto.VectorOuterClass.Vector;
 import emu.grasscutter.net.proto.VehicleInteractTypeOuterClass.VehicleInteractType;
 import emu.grasscutter.server.game.GameSession;
+import emu.grasscutter.server.game.LogicTimer;
 import emu.grasscutter.server.packet.send.*;
 import emu.grasscutter.utils.Position;
 import org.jetbrains.annotations.NotNull;
@@ -25,6 +26,7 @@ import org.jetbrains.annotations.NotNull;
 import static emu.grasscutter.config.Configuration.GAME_OPTIONS;
 
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 
 public class StaminaManager extends BasePlayerManager {
 
@@ -116,7 +118,7 @@ public class StaminaManager extends BasePlayerManager {
     private Position previousCoordinates = new Position(0, 0, 0);
     private MotionState currentState = MotionState.MOTION_STATE_STANDBY;
     private MotionState previousState = MotionState.MOTION_STATE_STANDBY;
-    private Timer sustainedStaminaHandlerTimer;
+    private LogicTimer.RepeatingTask sustainedStaminaHandlerTimer;
     private GameSession cachedSession = null;
     private GameEntity cachedEntity = null;
     private int staminaRecoverDelay = 0;
@@ -324,8 +326,8 @@ public class StaminaManager extends BasePlayerManager {
 
     public void startSustainedStaminaHandler() {
         if (!player.isPaused() && sustainedStaminaHandlerTimer == null) {
-            sustainedStaminaHandlerTimer = new Timer();
-            sustainedStaminaHandlerTimer.scheduleAtFixedRate(new SustainedStaminaHandler(), 0, 200);
+            sustainedStaminaHandlerTimer = LogicTimer.scheduleAtFixedRate(player.getSession().getLogicExecutor(),
+                    new SustainedStaminaHandler(), 0, 200, TimeUnit.MILLISECONDS);
             logger.debug("[MovementManager] SustainedStaminaHandlerTimer started");
         }
     }
@@ -432,7 +434,7 @@ public class StaminaManager extends BasePlayerManager {
         updateStaminaRelative(session, consumption, true);
     }
 
-    private class SustainedStaminaHandler extends TimerTask {
+    private class SustainedStaminaHandler implements Runnable {
         public void run() {
             boolean moving = isPlayerMoving();
             int currentCharacterStamina = getCurrentCharacterStamina();
@@ -2,7 +2,9 @@ package emu.grasscutter.game.player;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Function;
 
+import emu.grasscutter.game.world.Scene;
 import emu.grasscutter.net.packet.BasePacket;
 import emu.grasscutter.net.proto.ForwardTypeOuterClass.ForwardType;
 
@@ -10,13 +12,16 @@ public class InvokeHandler<T> {
 	private final List<T> entryListForwardAll;
 	private final List<T> entryListForwardAllExceptCur;
 	private final List<T> entryListForwardHost;
-	private final Class<? extends BasePacket> packetClass;
+	private final Function<List<T>, BasePacket> packetFactory;
 	
-	public InvokeHandler(Class<? extends BasePacket> packetClass) {
+	/**
+	 * @param packetFactory Creates the forward packet, it must copy the entries as the lists are reused.
+	 */
+	public InvokeHandler(Function<List<T>, BasePacket> packetFactory) {
 		this.entryListForwardAll = new ArrayList<>();
 		this.entryListForwardAllExceptCur = new ArrayList<>();
 		this.entryListForwardHost = new ArrayList<>();
-		this.packetClass = packetClass;
+		this.packetFactory = packetFactory;
 	}
 
 	public synchronized void addEntry(ForwardType forward, T entry) {
@@ -28,9 +33,16 @@ public class InvokeHandler<T> {
 			}
 		}
 	}
-	
-	public synchronized void update(Player player) {
-		if (player.getWorld() == null || player.getScene() == null) {
+
+	public void update(Player player) {
+		this.update(player, player.getScene());
+	}
+
+	/**
+	 * Forwards the queued entries within the given scene, which is the one they were queued in.
+	 */
+	public synchronized void update(Player player, Scene scene) {
+		if (scene == null || scene.getWorld() == null) {
 			this.entryListForwardAll.clear();
 			this.entryListForwardAllExceptCur.clear();
 			this.entryListForwardHost.clear();
@@ -39,18 +51,18 @@ public class InvokeHandler<T> {
 		
 		try {
 			if (entryListForwardAll.size() > 0) {
-				BasePacket packet = packetClass.getDeclaredConstructor(List.class).newInstance(this.entryListForwardAll);
-				player.getScene().broadcastPacket(packet);
+				BasePacket packet = this.packetFactory.apply(this.entryListForwardAll);
+				scene.broadcastPacket(packet);
 				this.entryListForwardAll.clear();
 			}
 			if (entryListForwardAllExceptCur.size() > 0) {
-				BasePacket packet = packetClass.getDeclaredConstructor(List.class).newInstance(this.entryListForwardAllExceptCur);
-				player.getScene().broadcastPacketToOthers(player, packet);
+				BasePacket packet = this.packetFactory.apply(this.entryListForwardAllExceptCur);
+				scene.broadcastPacketToOthers(player, packet);
 				this.entryListForwardAllExceptCur.clear();
 			}
 			if (entryListForwardHost.size() > 0) {
-				BasePacket packet = packetClass.getDeclaredConstructor(List.class).newInstance(this.entryListForwardHost);
-				player.getWorld().getHost().sendPacket(packet);
+				BasePacket packet = this.packetFactory.apply(this.entryListForwardHost);
+				scene.getWorld().getHost().sendPacket(packet);
 				this.entryListForwardHost.clear();
 			}
 		} catch (Exception e) {
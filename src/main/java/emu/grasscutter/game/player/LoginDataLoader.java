@@ -0,0 +1,205 @@
+package emu.grasscutter.game.player;
+
+import static emu.grasscutter.config.Configuration.GAME_INFO;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import emu.grasscutter.Grasscutter;
+import emu.grasscutter.database.DatabaseHelper;
+import emu.grasscutter.game.avatar.Avatar;
+import emu.grasscutter.game.battlepass.BattlePassManager;
+import emu.grasscutter.game.friends.Friendship;
+import emu.grasscutter.game.inventory.GameItem;
+import emu.grasscutter.game.mail.Mail;
+import emu.grasscutter.game.quest.GameMainQuest;
+import emu.grasscutter.server.game.GameSession;
+import emu.grasscutter.server.game.LogicTimer;
+import emu.grasscutter.utils.LatencyHistogram;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import lombok.Getter;
+
+/**
+ * Loads the data of logging-in players off the logic threads.
+ * The independent queries of one login run concurrently on an I/O pool;
+ * the results are then applied to the player on its session's logic executor.
+ * At most {@code loginLoadConcurrency} logins are fetched at once, later ones wait in line.
+ */
+public final class LoginDataLoader {
+    private static final long REPORT_INTERVAL_SECONDS = 60;
+
+    private final ExecutorService ioPool;
+    private final int maxConcurrentLogins;
+    private final Queue<Runnable> waiting = new ArrayDeque<>();
+    private int activeLogins = 0;
+    /* Logout saves which may not be stored yet, by account id. */
+    private final Map<String, CompletableFuture<Void>> pendingSaves = new ConcurrentHashMap<>();
+
+    /* Time from the login request until its data is applied, and the part spent querying. */
+    @Getter private final LatencyHistogram loginLatency = new LatencyHistogram();
+    @Getter private final LatencyHistogram fetchLatency = new LatencyHistogram();
+
+    public LoginDataLoader() {
+        int concurrency = GAME_INFO.loginLoadConcurrency > 0
+            ? GAME_INFO.loginLoadConcurrency : Runtime.getRuntime().availableProcessors();
+
+        this.maxConcurrentLogins = concurrency;
+        // Every login issues six queries at once.
+        this.ioPool = Executors.newFixedThreadPool(concurrency * 6, new DefaultThreadFactory("LoginLoader", true));
+
+        LogicTimer.scheduleAtFixedRate(this.ioPool, this::reportMetrics,
+            REPORT_INTERVAL_SECONDS, REPORT_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * The stored data of a player, apart from the player document itself.
+     */
+    public record LoginData(
+        List<Avatar> avatars,
+        List<GameItem> items,
+        List<Friendship> friendships,
+        List<Mail> mail,
+        List<GameMainQuest> quests,
+        BattlePassManager battlePass
+    ) { }
+
+    /**
+     * Queries the data of a player on the calling thread.
+     * @param player The player.
+     * @return The player's data.
+     */
+    public static LoginData fetch(Player player) {
+        return new LoginData(
+            DatabaseHelper.getAvatars(player),
+            DatabaseHelper.getInventoryItems(player),
+            DatabaseHelper.getFriends(player),
+            DatabaseHelper.getAllMail(player),
+            DatabaseHelper.getAllQuests(player),
+            DatabaseHelper.getBattlePass(player.getUid()));
+    }
+
+    /**
+     * Remembers the save of a player who logged out, so a new login of the account waits until it is stored.
+     * @param player The player.
+     * @param saved Completes once the player's data is stored.
+     */
+    public void onLogout(Player player, CompletableFuture<Void> saved) {
+        String accountId = player.getAccountId();
+        if (accountId == null) {
+            return;
+        }
+        this.pendingSaves.put(accountId, saved);
+        saved.whenComplete((v, e) -> this.pendingSaves.remove(accountId, saved));
+    }
+
+    /**
+     * Runs a login once the last logout of its account is stored, so it doesn't load older data.
+     * @param accountId The id of the account logging in.
+     * @param executor The executor of the new session.
+     * @param login The rest of the login.
+     */
+    public void afterSaved(String accountId, Executor executor, Runnable login) {
+        CompletableFuture<Void> saved = this.pendingSaves.get(accountId);
+        if (saved == null) {
+            executor.execute(login);
+            return;
+        }
+        // Failed saves are logged by the writer, the login goes ahead with what is stored.
+        saved.whenCompleteAsync((v, e) -> login.run(), executor);
+    }
+
+    /**
+     * Loads a player's data and applies it on the session's logic executor.
+     * Nothing is applied if the session closed meanwhile.
+     * @param player The player to load.
+     * @param onLoaded Run on the logic executor once the data was applied.
+     */
+    public void load(Player player, Runnable onLoaded) {
+        long start = System.nanoTime();
+        GameSession session = player.getSession();
+
+        this.submit(() -> this.fetchAsync(player).whenCompleteAsync((data, error) -> {
+            this.release();
+
+            if (error != null) {
+                Grasscutter.getLogger().error("Failed to load data of player " + player.getUid(), error);
+                session.close();
+                return;
+            }
+            if (session.getPlayer() != player || session.getState() == GameSession.SessionState.INACTIVE) {
+                return; // Disconnected while loading.
+            }
+
+            try {
+                player.loadFromDatabase(data);
+                this.loginLatency.record(System.nanoTime() - start);
+                onLoaded.run();
+            } catch (Exception e) {
+                Grasscutter.getLogger().error("Failed to log in player " + player.getUid(), e);
+                session.close();
+            }
+        }, session.getLogicExecutor()));
+    }
+
+    private CompletableFuture<LoginData> fetchAsync(Player player) {
+        long start = System.nanoTime();
+
+        var avatars = this.query(() -> DatabaseHelper.getAvatars(player));
+        var items = this.query(() -> DatabaseHelper.getInventoryItems(player));
+        var friendships = this.query(() -> DatabaseHelper.getFriends(player));
+        var mail = this.query(() -> DatabaseHelper.getAllMail(player));
+        var quests = this.query(() -> DatabaseHelper.getAllQuests(player));
+        var battlePass = this.query(() -> DatabaseHelper.getBattlePass(player.getUid()));
+
+        return CompletableFuture.allOf(avatars, items, friendships, mail, quests, battlePass).thenApply(v -> {
+            this.fetchLatency.record(System.nanoTime() - start);
+            return new LoginData(avatars.join(), items.join(), friendships.join(), mail.join(), quests.join(), battlePass.join());
+        });
+    }
+
+    private <T> CompletableFuture<T> query(Supplier<T> query) {
+        return CompletableFuture.supplyAsync(query, this.ioPool);
+    }
+
+    private void submit(Runnable login) {
+        synchronized (this.waiting) {
+            if (this.activeLogins >= this.maxConcurrentLogins) {
+                this.waiting.add(login);
+                return;
+            }
+            this.activeLogins++;
+        }
+        login.run();
+    }
+
+    private void release() {
+        Runnable next;
+        synchronized (this.waiting) {
+            next = this.waiting.poll();
+            if (next == null) {
+                this.activeLogins--;
+                return;
+            }
+        }
+        // The slot passes straight to the next login in line.
+        next.run();
+    }
+
+    private void reportMetrics() {
+        int queued;
+        synchronized (this.waiting) {
+            queued = this.waiting.size();
+        }
+        Grasscutter.getLogger().debug("Login loading: total[{}] fetch[{}] queued={}",
+            this.loginLatency, this.fetchLatency, queued);
+    }
+}
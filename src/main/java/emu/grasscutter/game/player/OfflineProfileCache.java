@@ -0,0 +1,137 @@
+package emu.grasscutter.game.player;
+
+import static emu.grasscutter.config.Configuration.GAME_INFO;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import emu.grasscutter.database.DatabaseHelper;
+import emu.grasscutter.net.proto.ShowAvatarInfoOuterClass.ShowAvatarInfo;
+import emu.grasscutter.net.proto.SocialDetailOuterClass.SocialDetail;
+
+/**
+ * Keeps read-only snapshots of offline players' profiles, so friend lists and profile views
+ * don't rebuild them from the database every time.
+ * The cache is bounded by the approximate size of the snapshots; the least recently used ones are dropped first.
+ * A player's snapshot is rebuilt from the player in memory when the player logs out or is saved while offline,
+ * as the save is written behind and the database may still hold the previous version for a while.
+ */
+public final class OfflineProfileCache {
+    /* Rough per-snapshot cost of the map entry and object headers, on top of the message sizes. */
+    private static final int ENTRY_OVERHEAD = 128;
+
+    private final long maxBytes;
+    private final Map<Integer, Profile> profiles = new LinkedHashMap<>(64, 0.75f, true);
+    private long totalBytes = 0;
+    private long invalidations = 0;
+
+    public OfflineProfileCache() {
+        this.maxBytes = GAME_INFO.offlineProfileCacheSize * 1024L;
+    }
+
+    /**
+     * What other players see of an offline player.
+     */
+    public record Profile(SocialDetail socialDetail, List<ShowAvatarInfo> showAvatarInfoList, List<Integer> showNameCardList) {
+        private static Profile of(Player player) {
+            // The showcase has to be built first, it loads the avatars the social detail refers to.
+            List<ShowAvatarInfo> showAvatars = player.isShowAvatars() ? player.getShowAvatarInfoList() : List.of();
+
+            return new Profile(
+                player.getSocialDetail().build(),
+                List.copyOf(showAvatars),
+                List.copyOf(player.getShowNameCardInfoList()));
+        }
+
+        public boolean isShowAvatars() {
+            return this.socialDetail.getIsShowAvatar();
+        }
+
+        private int getSize() {
+            int size = ENTRY_OVERHEAD + this.socialDetail.getSerializedSize() + this.showNameCardList.size() * Integer.BYTES;
+            for (ShowAvatarInfo info : this.showAvatarInfoList) {
+                size += info.getSerializedSize();
+            }
+            return size;
+        }
+    }
+
+    /**
+     * Gets the profile of an offline player, loading it from the database if it is not cached.
+     * @param uid The uid of the player, who should not be online.
+     * @return The profile, or null if there is no such player.
+     */
+    public Profile get(int uid) {
+        long generation;
+        synchronized (this) {
+            Profile profile = this.profiles.get(uid);
+            if (profile != null) {
+                return profile;
+            }
+            generation = this.invalidations;
+        }
+
+        Player player = DatabaseHelper.getPlayerByUid(uid);
+        if (player == null) {
+            return null;
+        }
+        Profile profile = Profile.of(player);
+
+        synchronized (this) {
+            // Don't cache what may have been loaded before a save.
+            if (generation == this.invalidations && this.maxBytes > 0) {
+                this.put(uid, profile);
+            }
+        }
+        return profile;
+    }
+
+    /**
+     * Replaces the cached profile of a player with one built from the player in memory.
+     * Profiles still being loaded from the database are not cached, they may predate this version.
+     * @param player The player, who has just been saved.
+     */
+    public void update(Player player) {
+        Profile profile = Profile.of(player);
+
+        synchronized (this) {
+            this.invalidations++;
+            if (this.maxBytes > 0) {
+                this.put(player.getUid(), profile);
+            }
+        }
+    }
+
+    /**
+     * Drops the cached profile of a player, and keeps profiles still being loaded from the database out of the cache.
+     * @param uid The uid of the player.
+     */
+    public synchronized void invalidate(int uid) {
+        this.invalidations++;
+
+        Profile profile = this.profiles.remove(uid);
+        if (profile != null) {
+            this.totalBytes -= profile.getSize();
+        }
+    }
+
+    public synchronized int getSize() {
+        return this.profiles.size();
+    }
+
+    private void put(int uid, Profile profile) {
+        Profile previous = this.profiles.put(uid, profile);
+        if (previous != null) {
+            this.totalBytes -= previous.getSize();
+        }
+        this.totalBytes += profile.getSize();
+
+        Iterator<Profile> eldest = this.profiles.values().iterator();
+        while (this.totalBytes > this.maxBytes && eldest.hasNext()) {
+            this.totalBytes -= eldest.next().getSize();
+            eldest.remove();
+        }
+    }
+}
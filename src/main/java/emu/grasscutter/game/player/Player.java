@@ -7,6 +7,7 @@ import emu.grasscutter.data.GameData;
 import emu.grasscutter.data.excels.PlayerLevelData;
 import emu.grasscutter.data.excels.WeatherData;
 import emu.grasscutter.database.DatabaseHelper;
+import emu.grasscutter.database.DatabaseManager;
 import emu.grasscutter.game.Account;
 import emu.grasscutter.game.CoopRequest;
 import emu.grasscutter.game.ability.AbilityManager;
@@ -65,6 +66,8 @@ import emu.grasscutter.server.event.player.PlayerQuitEvent;
 import emu.grasscutter.server.game.GameServer;
 import emu.grasscutter.server.game.GameSession;
 import emu.grasscutter.server.game.GameSession.SessionState;
+import emu.grasscutter.server.game.LogicTimer;
+import emu.grasscutter.server.game.TickPipeline;
 import emu.grasscutter.server.packet.send.*;
 import emu.grasscutter.utils.DateHelper;
 import emu.grasscutter.utils.Position;
@@ -83,7 +86,9 @@ import java.time.LocalDate;
 import java.time.ZoneId;
 import java.util.*;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.Executor;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 @Entity(value = "players", useDiscriminator = false)
 public class Player {
@@ -130,6 +135,7 @@ public class Player {
     @Getter @Setter private Map<Integer, Set<Integer>> unlockedSceneAreas;
     @Getter @Setter private Map<Integer, Set<Integer>> unlockedScenePoints;
     @Getter @Setter private List<Integer> chatEmojiIdList;
+    @Getter @Setter private int lastBroadcastMailId;
 
     @Transient private long nextGuid = 0;
     @Transient @Getter @Setter private int peerId;
@@ -182,6 +188,9 @@ public class Player {
     @Transient @Getter @Setter private SceneLoadState sceneLoadState = SceneLoadState.NONE;
     @Transient private boolean hasSentLoginPackets;
     @Transient private long nextSendPlayerLocTime = 0;
+    @Transient private TickPipeline tickPipeline;
+    @Transient private Scene invokeScene;  // The scene the queued invokes and attack results belong to
+    @Transient private boolean invokeUpdateScheduled;
 
     private transient final Int2ObjectMap<CoopRequest> coopRequests;  // Synchronized getter
     @Getter private transient final Queue<AttackResult> attackResults;
@@ -240,9 +249,9 @@ public class Player {
 
         this.attackResults = new LinkedBlockingQueue<>();
         this.coopRequests = new Int2ObjectOpenHashMap<>();
-        this.combatInvokeHandler = new InvokeHandler(PacketCombatInvocationsNotify.class);
-        this.abilityInvokeHandler = new InvokeHandler(PacketAbilityInvocationsNotify.class);
-        this.clientAbilityInitFinishHandler = new InvokeHandler(PacketClientAbilityInitFinishNotify.class);
+        this.combatInvokeHandler = new InvokeHandler<>(PacketCombatInvocationsNotify::new);
+        this.abilityInvokeHandler = new InvokeHandler<>(PacketAbilityInvocationsNotify::new);
+        this.clientAbilityInitFinishHandler = new InvokeHandler<>(PacketClientAbilityInitFinishNotify::new);
 
         this.birthday = new PlayerBirthday();
         this.rewardedLevels = new HashSet<>();
@@ -262,6 +271,12 @@ public class Player {
         this.furnitureManager = new FurnitureManager(this);
         this.cookingManager = new CookingManager(this);
         this.cookingCompoundManager=new CookingCompoundManager(this);
+
+        var stages = GAME_INFO.tickStages;
+        this.tickPipeline = new TickPipeline(GAME_INFO.playerTickInterval)
+            .addStage("playerSync", stages.playerSync, this::tickSync)
+            .addStage("playerProgress", stages.playerProgress, this::tickProgress)
+            .addStage("resin", stages.resin, () -> this.getResinManager().rechargeResin());
     }
 
     // On player creation
@@ -274,6 +289,7 @@ public class Player {
         this.signature = "";
         this.teamManager = new TeamManager(this);
         this.birthday = new PlayerBirthday();
+        this.lastBroadcastMailId = session.getServer().getMailSystem().getLastBroadcastId();
         this.codex = new PlayerCodex(this);
         this.setProperty(PlayerProperty.PROP_PLAYER_LEVEL, 1, false);
         this.setProperty(PlayerProperty.PROP_IS_SPRING_AUTO_USE, 1, false);
@@ -312,6 +328,10 @@ public class Player {
         return ((long) this.getUid() << 32) + nextId;
     }
 
+    public String getAccountId() {
+        return this.accountId;
+    }
+
     public Account getAccount() {
         if (this.account == null)
             this.account = DatabaseHelper.getAccountById(this.accountId);
@@ -322,6 +342,14 @@ public class Player {
         return this.getSession() != null && this.getSession().isActive();
     }
 
+    /**
+     * @return The executor this player's state is changed on; without a session, tasks run right away.
+     */
+    public Executor getLogicExecutor() {
+        GameSession session = this.getSession();
+        return session != null ? session.getLogicExecutor() : Runnable::run;
+    }
+
     public GameServer getServer() {
         return this.getSession().getServer();
     }
@@ -905,34 +933,22 @@ public class Player {
 
     public SocialDetail.Builder getSocialDetail() {
         List<SocialShowAvatarInfoOuterClass.SocialShowAvatarInfo> socialShowAvatarInfoList = new ArrayList<>();
-        if (this.isOnline()) {
-            if (this.getShowAvatarList() != null) {
-                for (int avatarId : this.getShowAvatarList()) {
-                    socialShowAvatarInfoList.add(
-                            socialShowAvatarInfoList.size(),
-                            SocialShowAvatarInfoOuterClass.SocialShowAvatarInfo.newBuilder()
-                                    .setAvatarId(avatarId)
-                                    .setLevel(getAvatars().getAvatarById(avatarId).getLevel())
-                                    .setCostumeId(getAvatars().getAvatarById(avatarId).getCostume())
-                                    .build()
-                    );
-                }
-            }
-        } else {
-            List<Integer> showAvatarList = DatabaseHelper.getPlayerByUid(id).getShowAvatarList();
-            AvatarStorage avatars = DatabaseHelper.getPlayerByUid(id).getAvatars();
-            avatars.loadFromDatabase();
-            if (showAvatarList != null) {
-                for (int avatarId : showAvatarList) {
-                    socialShowAvatarInfoList.add(
-                            socialShowAvatarInfoList.size(),
-                            SocialShowAvatarInfoOuterClass.SocialShowAvatarInfo.newBuilder()
-                                    .setAvatarId(avatarId)
-                                    .setLevel(avatars.getAvatarById(avatarId).getLevel())
-                                    .setCostumeId(avatars.getAvatarById(avatarId).getCostume())
-                                    .build()
-                    );
+        if (!this.isOnline()) {
+            this.loadOfflineAvatars();
+        }
+        if (this.getShowAvatarList() != null) {
+            for (int avatarId : this.getShowAvatarList()) {
+                Avatar avatar = this.getAvatars().getAvatarById(avatarId);
+                if (avatar == null) {
+                    continue;
                 }
+                socialShowAvatarInfoList.add(
+                        SocialShowAvatarInfoOuterClass.SocialShowAvatarInfo.newBuilder()
+                                .setAvatarId(avatarId)
+                                .setLevel(avatar.getLevel())
+                                .setCostumeId(avatar.getCostume())
+                                .build()
+                );
             }
         }
 
@@ -956,23 +972,23 @@ public class Player {
     public List<ShowAvatarInfoOuterClass.ShowAvatarInfo> getShowAvatarInfoList() {
         List<ShowAvatarInfoOuterClass.ShowAvatarInfo> showAvatarInfoList = new ArrayList<>();
 
-        Player player;
-        boolean shouldRecalc;
-        if (this.isOnline()) {
-            player = this;
-            shouldRecalc = false;
-        } else {
-            player = DatabaseHelper.getPlayerByUid(id);
-            player.getAvatars().loadFromDatabase();
-            player.getInventory().loadFromDatabase();
-            shouldRecalc = true;
+        boolean shouldRecalc = !this.isOnline();
+        if (shouldRecalc) {
+            // Stats only depend on the avatar and its equipment, so the rest of the inventory stays unloaded.
+            this.loadOfflineAvatars();
+            if (this.getInventory().getItems().isEmpty()) {
+                this.getInventory().loadFromDatabase(DatabaseHelper.getEquippedItems(this));
+            }
         }
 
-        List<Integer> showAvatarList = player.getShowAvatarList();
-        AvatarStorage avatars = player.getAvatars();
+        List<Integer> showAvatarList = this.getShowAvatarList();
+        AvatarStorage avatars = this.getAvatars();
         if (showAvatarList != null) {
             for (int avatarId : showAvatarList) {
                 Avatar avatar = avatars.getAvatarById(avatarId);
+                if (avatar == null) {
+                    continue;
+                }
                 if (shouldRecalc) {
                     avatar.recalcStats();
                 }
@@ -982,6 +998,12 @@ public class Player {
         return showAvatarInfoList;
     }
 
+    private void loadOfflineAvatars() {
+        if (this.getAvatars().getAvatarCount() == 0) {
+            this.getAvatars().loadFromDatabase();
+        }
+    }
+
     public List<Integer> getShowNameCardInfoList() {
         List<Integer> info = this.getShowNameCardList();
         return info == null ? new ArrayList<>() : info;
@@ -1004,7 +1026,12 @@ public class Player {
 
     public void loadBattlePassManager() {
         if (this.battlePassManager != null) return;
-        this.battlePassManager = DatabaseHelper.loadBattlePass(this);
+        this.loadBattlePassManager(DatabaseHelper.getBattlePass(this.getUid()));
+    }
+
+    private void loadBattlePassManager(BattlePassManager stored) {
+        if (this.battlePassManager != null) return;
+        this.battlePassManager = DatabaseHelper.loadBattlePass(this, stored);
         this.battlePassManager.getMissions().values().removeIf(mission -> mission.getData() == null);
     }
 
@@ -1032,6 +1059,64 @@ public class Player {
     }
 
     public synchronized void onTick() {
+        this.tickPipeline.tick();
+    }
+
+    /**
+     * Called before queueing the invokes and attack results of a notify.
+     * Whatever is still queued from a scene the player has since left is sent there first.
+     */
+    public void beginInvokes() {
+        Scene scene = this.getScene();
+        if (this.invokeScene != null && this.invokeScene != scene) {
+            this.updateInvokes();
+        }
+        this.invokeScene = scene;
+    }
+
+    /**
+     * Runs {@link #updateInvokes()} at the end of the current KCP flush window instead of right away,
+     * so invokes from several notifies arriving within the same window are forwarded as one packet.
+     * Like the packet handlers, this runs on the session's logic executor.
+     */
+    public void scheduleInvokeUpdate() {
+        if (this.invokeUpdateScheduled) {
+            return;
+        }
+        if (GAME_INFO.kcpInterval <= 0 || this.session == null) {
+            this.updateInvokes();
+            return;
+        }
+
+        this.invokeUpdateScheduled = true;
+        LogicTimer.schedule(this.session.getLogicExecutor(), this::updateInvokes, GAME_INFO.kcpInterval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Forwards the queued combat and ability invokes, then handles the queued attack results, all in the scene they were queued in.
+     */
+    public void updateInvokes() {
+        Scene scene = this.invokeScene != null ? this.invokeScene : this.getScene();
+        this.invokeScene = null;
+        this.invokeUpdateScheduled = false;
+
+        this.combatInvokeHandler.update(this, scene);
+        this.abilityInvokeHandler.update(this, scene);
+
+        // Handle attack results last
+        AttackResult result;
+        while ((result = this.attackResults.poll()) != null) {
+            if (scene != null) {
+                scene.handleAttack(result);
+            }
+        }
+    }
+
+    public List<TickPipeline.Stage> getTickStages() {
+        return this.tickPipeline.getStages();
+    }
+
+    private void tickSync() {
         // Check ping
         if (this.getLastPingTime() > System.currentTimeMillis() + 60000) {
             this.getSession().close();
@@ -1054,7 +1139,9 @@ public class Player {
                 this.resetSendPlayerLocTime();
             }
         }
+    }
 
+    private void tickProgress() {
         // Handle daily reset.
         this.doDailyReset();
 
@@ -1076,9 +1163,6 @@ public class Player {
 
         // Send updated forge queue data, if necessary.
         this.getForgingManager().sendPlayerForgingUpdate();
-
-        // Recharge resin.
-        this.getResinManager().rechargeResin();
     }
 
     private synchronized void doDailyReset() {
@@ -1125,10 +1209,25 @@ public class Player {
 
     public void save() {
         DatabaseHelper.savePlayer(this);
+
+        // The write may not have reached the database yet, so the offline profile is taken from memory.
+        // Online players are looked up directly, their profile is only built once they log out.
+        GameServer server = Grasscutter.getGameServer();
+        if (server != null) {
+            if (this.isOnline()) {
+                server.getOfflineProfiles().invalidate(this.getUid());
+            } else {
+                server.getOfflineProfiles().update(this);
+            }
+        }
     }
 
     // Called from tokenrsp
     public void loadFromDatabase() {
+        this.loadFromDatabase(LoginDataLoader.fetch(this));
+    }
+
+    public void loadFromDatabase(LoginDataLoader.LoginData data) {
         // Make sure these exist
         if (this.getTeamManager() == null) {
             this.teamManager = new TeamManager(this);
@@ -1141,15 +1240,15 @@ public class Player {
         }
 
         // Load from db
-        this.getAvatars().loadFromDatabase();
-        this.getInventory().loadFromDatabase();
+        this.getAvatars().loadFromDatabase(data.avatars());
+        this.getInventory().loadFromDatabase(data.items());
         this.getAvatars().postLoad(); // Needs to be called after inventory is handled
 
-        this.getFriendsList().loadFromDatabase();
-        this.getMailHandler().loadFromDatabase();
-        this.getQuestManager().loadFromDatabase();
+        this.getFriendsList().loadFromDatabase(data.friendships());
+        this.getMailHandler().loadFromDatabase(data.mail());
+        this.getQuestManager().loadFromDatabase(data.quests());
 
-        this.loadBattlePassManager();
+        this.loadBattlePassManager(data.battlePass());
     }
 
     public void onLogin() {
@@ -1234,6 +1333,9 @@ public class Player {
         // register
         getServer().registerPlayer(this);
         getProfile().setPlayer(this); // Set online
+
+        // Mail sent to everyone while offline
+        this.getMailHandler().receiveBroadcasts();
     }
 
     public void onLogout() {
@@ -1243,6 +1345,7 @@ public class Player {
 
             // stop stamina calculation
             getStaminaManager().stopSustainedStaminaHandler();
+            getSotsManager().stopAutoRecoverTimer();
 
             // force to leave the dungeon (inside has a "if")
             this.getServer().getDungeonSystem().exitDungeon(this);
@@ -1262,6 +1365,11 @@ public class Player {
             this.save();
             this.getTeamManager().saveAvatars();
             this.getFriendsList().save();
+            this.getServer().getOfflineProfiles().update(this);
+            // Write out everything still queued without holding up the logic thread, a new login waits for it instead.
+            var saved = DatabaseManager.getStorage().flushAsync();
+            saved.whenComplete((v, e) -> DatabaseManager.getStorage().evict(this));
+            this.getServer().getLoginDataLoader().onLogout(this, saved);
 
             // Call quit event.
             PlayerQuitEvent event = new PlayerQuitEvent(this); event.call();
@@ -312,8 +312,10 @@ public class QuestManager extends BasePlayerManager {
             .toList();
     }
     public void loadFromDatabase() {
-        List<GameMainQuest> quests = DatabaseHelper.getAllQuests(getPlayer());
+        this.loadFromDatabase(DatabaseHelper.getAllQuests(getPlayer()));
+    }
 
+    public void loadFromDatabase(List<GameMainQuest> quests) {
         for (GameMainQuest mainQuest : quests) {
             boolean cancelAdd = false;
             mainQuest.setOwner(this.getPlayer());
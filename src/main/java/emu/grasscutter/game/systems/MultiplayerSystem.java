@@ -39,20 +39,22 @@ public class MultiplayerSystem extends BaseGameSystem {
         }
         */
 
-        // Get request
-        CoopRequest request = target.getCoopRequests().get(player.getUid());
-
-        if (request != null && !request.isExpired()) {
-            // Join request already exists
-            return;
-        }
+        // The request is the target's, so it is filed on the target's logic executor
+        target.getLogicExecutor().execute(() -> {
+            // Get request
+            CoopRequest request = target.getCoopRequests().get(player.getUid());
+
+            if (request != null && !request.isExpired()) {
+                // Join request already exists
+                return;
+            }
 
-        // Put request in
-        request = new CoopRequest(player);
-        target.getCoopRequests().put(player.getUid(), request);
+            // Put request in
+            target.getCoopRequests().put(player.getUid(), new CoopRequest(player));
 
-        // Packet
-        target.sendPacket(new PacketPlayerApplyEnterMpNotify(player));
+            // Packet
+            target.sendPacket(new PacketPlayerApplyEnterMpNotify(player));
+        });
     }
 
     public void applyEnterMpReply(Player hostPlayer, int applyUid, boolean isAgreed) {
@@ -66,20 +68,49 @@ public class MultiplayerSystem extends BaseGameSystem {
         Player requester = request.getRequester();
         hostPlayer.getCoopRequests().remove(applyUid);
 
+        // The requester leaves their world on their own logic executor, then joins on the host's
+        requester.getLogicExecutor().execute(() -> this.leaveForMp(hostPlayer, requester, isAgreed));
+    }
+
+    private void leaveForMp(Player hostPlayer, Player requester, boolean isAgreed) {
+        if (!requester.isOnline() || requester.getWorld() == null) {
+            return;
+        }
+
         // Sanity checks - Dont let the requesting player join if they are already in multiplayer
         if (requester.getWorld().isMultiplayer()) {
-            request.getRequester().sendPacket(new PacketPlayerApplyEnterMpResultNotify(hostPlayer, false, PlayerApplyEnterMpResultNotifyOuterClass.PlayerApplyEnterMpResultNotify.Reason.REASON_PLAYER_CANNOT_ENTER_MP));
+            requester.sendPacket(new PacketPlayerApplyEnterMpResultNotify(hostPlayer, false, PlayerApplyEnterMpResultNotifyOuterClass.PlayerApplyEnterMpResultNotify.Reason.REASON_PLAYER_CANNOT_ENTER_MP));
             return;
         }
 
         // Response packet
-        request.getRequester().sendPacket(new PacketPlayerApplyEnterMpResultNotify(hostPlayer, isAgreed, PlayerApplyEnterMpResultNotifyOuterClass.PlayerApplyEnterMpResultNotify.Reason.REASON_PLAYER_JUDGE));
+        requester.sendPacket(new PacketPlayerApplyEnterMpResultNotify(hostPlayer, isAgreed, PlayerApplyEnterMpResultNotifyOuterClass.PlayerApplyEnterMpResultNotify.Reason.REASON_PLAYER_JUDGE));
 
         // Declined
         if (!isAgreed) {
             return;
         }
 
+        requester.getWorld().removePlayer(requester);
+        hostPlayer.getLogicExecutor().execute(() -> this.joinMp(hostPlayer, requester));
+    }
+
+    private void joinMp(Player hostPlayer, Player requester) {
+        if (!requester.isOnline()) {
+            return;
+        }
+
+        // The host left meanwhile, send the requester back to a world of their own
+        if (!hostPlayer.isOnline() || hostPlayer.getWorld() == null) {
+            requester.getLogicExecutor().execute(() -> {
+                World world = new World(requester);
+                world.addPlayer(requester);
+
+                requester.sendPacket(new PacketPlayerEnterSceneNotify(requester, EnterType.ENTER_TYPE_SELF, EnterReason.TeamBack, requester.getScene().getId(), requester.getPosition()));
+            });
+            return;
+        }
+
         // Success
         if (!hostPlayer.getWorld().isMultiplayer()) {
             // Player not in multiplayer, create multiplayer world
@@ -12,12 +12,14 @@ import emu.grasscutter.game.entity.gadget.GadgetWorktop;
 import emu.grasscutter.game.managers.blossom.BlossomManager;
 import emu.grasscutter.game.player.Player;
 import emu.grasscutter.game.player.TeamInfo;
+import emu.grasscutter.game.props.EntityIdType;
 import emu.grasscutter.game.props.FightProperty;
 import emu.grasscutter.game.props.LifeState;
 import emu.grasscutter.game.props.SceneType;
 import emu.grasscutter.game.quest.QuestGroupSuite;
 import emu.grasscutter.game.dungeons.challenge.WorldChallenge;
 import emu.grasscutter.net.packet.BasePacket;
+import emu.grasscutter.net.packet.SharedPacketBody;
 import emu.grasscutter.net.proto.AttackResultOuterClass.AttackResult;
 import emu.grasscutter.net.proto.SelectWorktopOptionReqOuterClass;
 import emu.grasscutter.net.proto.VisionTypeOuterClass.VisionType;
@@ -26,8 +28,12 @@ import emu.grasscutter.scripts.SceneScriptManager;
 import emu.grasscutter.scripts.data.SceneBlock;
 import emu.grasscutter.scripts.data.SceneGadget;
 import emu.grasscutter.scripts.data.SceneGroup;
+import emu.grasscutter.server.game.TickPipeline;
 import emu.grasscutter.server.packet.send.*;
 import emu.grasscutter.utils.Position;
+
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -41,11 +47,19 @@ public class Scene {
     @Getter private final SceneData sceneData;
     @Getter private final List<Player> players;
     @Getter private final Map<Integer, GameEntity> entities;
+    /* Secondary indexes of the entities, kept up to date by addEntityDirectly and removeEntityDirectly. */
+    private final Map<Integer, Set<GameEntity>> entitiesByConfigId;
+    private final Map<Integer, Set<GameEntity>> entitiesByGroupId;
+    private final Map<Integer, Set<GameEntity>> entitiesByBlockId;
+    private final Map<Integer, Set<GameEntity>> entitiesByType;
     @Getter private final Set<SpawnDataEntry> spawnedEntities;
     @Getter private final Set<SpawnDataEntry> deadSpawnedEntities;
     @Getter private final Set<SceneBlock> loadedBlocks;
     @Getter private final BlossomManager blossomManager;
-    private Set<SpawnDataEntry.GridBlockId> loadedGridBlocks;
+    /* Keys of the spawn grid blocks whose spawns are loaded, and scratch space to find the ones near players now. */
+    private LongOpenHashSet loadedGridBlocks;
+    private LongOpenHashSet nearbyGridBlocks;
+    private final long[] adjacentGridBlocks = new long[SpawnDataEntry.GridBlockId.ADJACENT_COUNT];
     @Getter @Setter private boolean dontDestroyWhenEmpty;
 
     @Getter @Setter private int autoCloseTime;
@@ -58,12 +72,19 @@ public class Scene {
     @Getter private DungeonData dungeonData;
     @Getter @Setter private int prevScene; // Id of the previous scene
     @Getter @Setter private int prevScenePoint;
-    private Set<SceneNpcBornEntry> npcBornEntrySet;
+    private final SceneVisibility visibility;
+    private final TickPipeline tickPipeline;
+    /* The NPC groups each player's client has been told to load. */
+    private final Map<Player, Set<SceneNpcBornEntry>> npcBornEntries;
     public Scene(World world, SceneData sceneData) {
         this.world = world;
         this.sceneData = sceneData;
         this.players = new CopyOnWriteArrayList<>();
         this.entities = new ConcurrentHashMap<>();
+        this.entitiesByConfigId = new ConcurrentHashMap<>();
+        this.entitiesByGroupId = new ConcurrentHashMap<>();
+        this.entitiesByBlockId = new ConcurrentHashMap<>();
+        this.entitiesByType = new ConcurrentHashMap<>();
 
         this.time = 8 * 60;
         this.startTime = System.currentTimeMillis();
@@ -72,10 +93,42 @@ public class Scene {
         this.spawnedEntities = ConcurrentHashMap.newKeySet();
         this.deadSpawnedEntities = ConcurrentHashMap.newKeySet();
         this.loadedBlocks = ConcurrentHashMap.newKeySet();
-        this.loadedGridBlocks = new HashSet<>();
-        this.npcBornEntrySet = ConcurrentHashMap.newKeySet();
+        this.loadedGridBlocks = new LongOpenHashSet();
+        this.nearbyGridBlocks = new LongOpenHashSet();
+        this.visibility = new SceneVisibility(this);
+        this.npcBornEntries = new ConcurrentHashMap<>();
         this.scriptManager = new SceneScriptManager(this);
         this.blossomManager = new BlossomManager(this);
+        this.tickPipeline = this.createTickPipeline();
+    }
+
+    private TickPipeline createTickPipeline() {
+        var stages = Grasscutter.getConfig().server.game.tickStages;
+        var pipeline = new TickPipeline(Grasscutter.getConfig().server.game.worldTickInterval)
+            .addStage("visibility", stages.visibility, this.visibility::update);
+
+        // disable script for home
+        if (this.getSceneType() == SceneType.SCENE_HOME_WORLD || this.getSceneType() == SceneType.SCENE_HOME_ROOM) {
+            return pipeline;
+        }
+        return pipeline
+            .addStage("blocks", stages.blocks, () -> {
+                if (this.getScriptManager().isInit()) {
+                    this.checkBlocks();
+                } else {
+                    // TEMPORARY
+                    this.checkSpawns();
+                }
+            })
+            // Triggers
+            .addStage("regions", stages.regions, () -> this.scriptManager.checkRegions())
+            .addStage("challenges", stages.challenges, () -> {
+                if (challenge != null) {
+                    challenge.onCheckTimeOut();
+                }
+            })
+            .addStage("blossoms", stages.blossoms, () -> blossomManager.onTick())
+            .addStage("npcGroups", stages.npcGroups, this::checkNpcGroup);
     }
 
     public int getId() {
@@ -95,12 +148,34 @@ public class Scene {
     }
 
     public GameEntity getEntityByConfigId(int configId) {
-        return this.entities.values().stream()
-                .filter(x -> x.getConfigId() == configId)
+        return this.getEntitiesByConfigId(configId).stream()
+                .findFirst()
+                .orElse(null);
+    }
+
+    public GameEntity getEntityByConfigId(int groupId, int configId) {
+        return this.getEntitiesByConfigId(configId).stream()
+                .filter(x -> x.getGroupId() == groupId)
                 .findFirst()
                 .orElse(null);
     }
 
+    public Set<GameEntity> getEntitiesByConfigId(int configId) {
+        return getIndexed(this.entitiesByConfigId, configId);
+    }
+
+    public Set<GameEntity> getEntitiesByGroupId(int groupId) {
+        return getIndexed(this.entitiesByGroupId, groupId);
+    }
+
+    public Set<GameEntity> getEntitiesByBlockId(int blockId) {
+        return getIndexed(this.entitiesByBlockId, blockId);
+    }
+
+    public Set<GameEntity> getEntitiesByType(EntityIdType type) {
+        return getIndexed(this.entitiesByType, type.getId());
+    }
+
     public void changeTime(int time) {
         this.time = time % 1440;
     }
@@ -155,6 +230,8 @@ public class Scene {
         // Remove player from scene
         getPlayers().remove(player);
         player.setScene(null);
+        this.visibility.removePlayer(player);
+        this.npcBornEntries.remove(player);
 
         // Remove player avatars
         this.removePlayerAvatars(player);
@@ -210,18 +287,75 @@ public class Scene {
         teamManager.getActiveTeam().stream().map(EntityAvatar::getAvatar).forEach(Avatar::sendSkillExtraChargeMap);
     }
 
+    private static Set<GameEntity> getIndexed(Map<Integer, Set<GameEntity>> index, int key) {
+        var entities = index.get(key);
+        return entities != null ? Collections.unmodifiableSet(entities) : Set.of();
+    }
+
+    private static void addToIndex(Map<Integer, Set<GameEntity>> index, int key, GameEntity entity) {
+        index.compute(key, (k, entities) -> {
+            if (entities == null) {
+                entities = ConcurrentHashMap.newKeySet();
+            }
+            entities.add(entity);
+            return entities;
+        });
+    }
+
+    private static void removeFromIndex(Map<Integer, Set<GameEntity>> index, int key, GameEntity entity) {
+        index.computeIfPresent(key, (k, entities) -> entities.remove(entity) && entities.isEmpty() ? null : entities);
+    }
+
+    private void indexEntity(GameEntity entity) {
+        addToIndex(this.entitiesByConfigId, entity.getConfigId(), entity);
+        addToIndex(this.entitiesByGroupId, entity.getGroupId(), entity);
+        addToIndex(this.entitiesByBlockId, entity.getBlockId(), entity);
+        addToIndex(this.entitiesByType, entity.getEntityType(), entity);
+    }
+
+    private void unindexEntity(GameEntity entity) {
+        removeFromIndex(this.entitiesByConfigId, entity.getConfigId(), entity);
+        removeFromIndex(this.entitiesByGroupId, entity.getGroupId(), entity);
+        removeFromIndex(this.entitiesByBlockId, entity.getBlockId(), entity);
+        removeFromIndex(this.entitiesByType, entity.getEntityType(), entity);
+    }
+
+    /**
+     * Changes the config, group or block id of an entity, moving it in the indexes if it is in this scene.
+     */
+    public synchronized void updateEntityIndex(GameEntity entity, Runnable change) {
+        if (!this.isInScene(entity)) {
+            change.run();
+            return;
+        }
+        this.unindexEntity(entity);
+        change.run();
+        this.indexEntity(entity);
+    }
+
     private void addEntityDirectly(GameEntity entity) {
+        this.addEntityDirectly(entity, null);
+    }
+
+    private void addEntityDirectly(GameEntity entity, Player owner) {
         getEntities().put(entity.getId(), entity);
+        this.indexEntity(entity);
+        if (owner != null) {
+            this.visibility.addOwned(owner, entity);
+        } else {
+            this.visibility.add(entity);
+        }
         entity.onCreate(); // Call entity create event
     }
 
     public synchronized void addEntity(GameEntity entity) {
         this.addEntityDirectly(entity);
-        this.broadcastPacket(new PacketSceneEntityAppearNotify(entity));
+        this.visibility.appear(List.of(entity), VisionType.VISION_TYPE_BORN);
     }
 
     public synchronized void addEntityToSingleClient(Player player, GameEntity entity) {
-        this.addEntityDirectly(entity);
+        // Nobody else is ever shown it, however close they get
+        this.addEntityDirectly(entity, player);
         player.sendPacket(new PacketSceneEntityAppearNotify(entity));
 
     }
@@ -237,12 +371,14 @@ public class Scene {
             this.addEntityDirectly(entity);
         }
 
-        this.broadcastPacket(new PacketSceneEntityAppearNotify(entities, visionType));
+        this.visibility.appear(entities, visionType);
     }
 
     private GameEntity removeEntityDirectly(GameEntity entity) {
         var removed = getEntities().remove(entity.getId());
         if (removed != null) {
+            this.unindexEntity(removed);
+            this.visibility.remove(removed);
             removed.onRemoved();//Call entity remove event
         }
         return removed;
@@ -255,15 +391,16 @@ public class Scene {
     public synchronized void removeEntity(GameEntity entity, VisionType visionType) {
         GameEntity removed = this.removeEntityDirectly(entity);
         if (removed != null) {
-            this.broadcastPacket(new PacketSceneEntityDisappearNotify(removed, visionType));
+            this.visibility.disappear(List.of(removed), visionType);
         }
     }
     public synchronized void removeEntities(List<GameEntity> entity, VisionType visionType) {
         var toRemove = entity.stream()
                 .map(this::removeEntityDirectly)
+                .filter(Objects::nonNull)
                 .toList();
         if (toRemove.size() > 0) {
-            this.broadcastPacket(new PacketSceneEntityDisappearNotify(toRemove, visionType));
+            this.visibility.disappear(toRemove, visionType);
         }
     }
     public synchronized void replaceEntity(EntityAvatar oldEntity, EntityAvatar newEntity) {
@@ -275,7 +412,7 @@ public class Scene {
 
     public void showOtherEntities(Player player) {
         GameEntity currentEntity = player.getTeamManager().getCurrentAvatarEntity();
-        List<GameEntity> entities = this.getEntities().values().stream().filter(entity -> entity != currentEntity).toList();
+        List<GameEntity> entities = this.visibility.reset(player).stream().filter(entity -> entity != currentEntity).toList();
 
         player.sendPacket(new PacketSceneEntityAppearNotify(entities, VisionType.VISION_TYPE_MEET));
     }
@@ -338,26 +475,11 @@ public class Scene {
     }
 
     public void onTick() {
-        // disable script for home
-        if (this.getSceneType() == SceneType.SCENE_HOME_WORLD || this.getSceneType() == SceneType.SCENE_HOME_ROOM) {
-            return;
-        }
-        if (this.getScriptManager().isInit()) {
-            this.checkBlocks();
-        } else {
-            // TEMPORARY
-            this.checkSpawns();
-        }
-        // Triggers
-        this.scriptManager.checkRegions();
-
-        if (challenge != null) {
-            challenge.onCheckTimeOut();
-        }
-
-        blossomManager.onTick();
+        this.tickPipeline.tick();
+    }
 
-        checkNpcGroup();
+    public List<TickPipeline.Stage> getTickStages() {
+        return this.tickPipeline.getStages();
     }
 
     public int getEntityLevel(int baseLevel, int worldLevelOverride) {
@@ -368,43 +490,47 @@ public class Scene {
         return level;
     }
     public void checkNpcGroup() {
-        Set<SceneNpcBornEntry> npcBornEntries = ConcurrentHashMap.newKeySet();
         for (Player player : this.getPlayers()) {
-            npcBornEntries.addAll(loadNpcForPlayer(player));
-        }
-
-        // clear the unreachable group for client
-        var toUnload = this.npcBornEntrySet.stream()
-            .filter(i -> !npcBornEntries.contains(i))
-            .map(SceneNpcBornEntry::getGroupId)
-            .toList();
-
-        if (toUnload.size() > 0) {
-            broadcastPacket(new PacketGroupUnloadNotify(toUnload));
-            Grasscutter.getLogger().debug("Unload NPC Group {}", toUnload);
+            this.loadNpcForPlayer(player);
         }
-        // exchange the new npcBornEntry Set
-        this.npcBornEntrySet = npcBornEntries;
     }
 
     public synchronized void checkSpawns() {
-        Set<SpawnDataEntry.GridBlockId> loadedGridBlocks = new HashSet<>();
+        LongOpenHashSet nearby = this.nearbyGridBlocks;
+        nearby.clear();
+        boolean changed = false;
         for (Player player : this.getPlayers()) {
-            for (SpawnDataEntry.GridBlockId block : SpawnDataEntry.GridBlockId.getAdjacentGridBlockIds(player.getSceneId(), player.getPosition()))
-                loadedGridBlocks.add(block);
+            int count = SpawnDataEntry.GridBlockId.getAdjacentGridBlockKeys(player.getSceneId(), player.getPosition(), this.adjacentGridBlocks);
+            for (int i = 0; i < count; i++) {
+                long block = this.adjacentGridBlocks[i];
+                nearby.add(block);
+                changed |= !this.loadedGridBlocks.contains(block);
+            }
         }
-        if (this.loadedGridBlocks.containsAll(loadedGridBlocks)) {  // Don't recalculate static spawns if nothing has changed
+        if (!changed) {  // Don't recalculate static spawns if nothing has changed
             return;
         }
-        this.loadedGridBlocks = loadedGridBlocks;
+
+        // Only the blocks which were loaded or unloaded need to be looked at
         var spawnLists = GameDepot.getSpawnLists();
-        Set<SpawnDataEntry> visible = new HashSet<>();
-        for (var block : loadedGridBlocks) {
+        List<SpawnDataEntry> visible = new ArrayList<>();
+        Set<SpawnDataEntry> unloaded = new HashSet<>();
+        for (LongIterator it = nearby.iterator(); it.hasNext(); ) {
+            long block = it.nextLong();
             var spawns = spawnLists.get(block);
-            if (spawns!=null) {
+            if (spawns != null && !this.loadedGridBlocks.contains(block)) {
                 visible.addAll(spawns);
             }
         }
+        for (LongIterator it = this.loadedGridBlocks.iterator(); it.hasNext(); ) {
+            long block = it.nextLong();
+            var spawns = spawnLists.get(block);
+            if (spawns != null && !nearby.contains(block)) {
+                unloaded.addAll(spawns);
+            }
+        }
+        this.nearbyGridBlocks = this.loadedGridBlocks;
+        this.loadedGridBlocks = nearby;
 
         // World level
         WorldLevelData worldLevelData = GameData.getWorldLevelDataMap().get(getWorld().getWorldLevel());
@@ -466,9 +592,9 @@ public class Scene {
             }
         }
 
-        for (GameEntity entity : this.getEntities().values()) {
+        for (GameEntity entity : unloaded.isEmpty() ? List.<GameEntity>of() : this.getEntities().values()) {
             var spawnEntry = entity.getSpawnEntry();
-            if (spawnEntry != null && !visible.contains(spawnEntry)) {
+            if (spawnEntry != null && unloaded.contains(spawnEntry)) {
                 toRemove.add(entity);
                 spawnedEntities.remove(spawnEntry);
             }
@@ -476,19 +602,23 @@ public class Scene {
 
         if (toAdd.size() > 0) {
             toAdd.stream().forEach(this::addEntityDirectly);
-            this.broadcastPacket(new PacketSceneEntityAppearNotify(toAdd, VisionType.VISION_TYPE_BORN));
+            this.visibility.appear(toAdd, VisionType.VISION_TYPE_BORN);
         }
         if (toRemove.size() > 0) {
             toRemove.stream().forEach(this::removeEntityDirectly);
-            this.broadcastPacket(new PacketSceneEntityDisappearNotify(toRemove, VisionType.VISION_TYPE_REMOVE));
+            this.visibility.disappear(toRemove, VisionType.VISION_TYPE_REMOVE);
             blossomManager.recycleGadgetEntity(toRemove);
         }
     }
 
     public List<SceneBlock> getPlayerActiveBlocks(Player player) {
+        return this.getPlayerBlocksInRange(player, Grasscutter.getConfig().server.game.loadEntitiesForPlayerRange);
+    }
+
+    private List<SceneBlock> getPlayerBlocksInRange(Player player, int range) {
         // consider the borders' entities of blocks, so we check if contains by index
         return SceneIndexManager.queryNeighbors(getScriptManager().getBlocksIndex(),
-                player.getPosition().toXZDoubleArray(), Grasscutter.getConfig().server.game.loadEntitiesForPlayerRange);
+                player.getPosition().toXZDoubleArray(), range);
     }
 
     private boolean unloadBlockIfNotVisible(Collection<SceneBlock> visible, SceneBlock block) {
@@ -510,7 +640,14 @@ public class Scene {
             .flatMap(Collection::stream)
             .collect(Collectors.toSet());
 
-        this.loadedBlocks.removeIf(block -> unloadBlockIfNotVisible(visible, block));
+        // Blocks are only unloaded a bit further away than they are loaded, so walking along an edge doesn't reload them
+        int exitRange = (int) (Grasscutter.getConfig().server.game.loadEntitiesForPlayerRange * SceneVisibility.EXIT_FACTOR);
+        Set<SceneBlock> inReach = this.players.stream()
+            .map(player -> this.getPlayerBlocksInRange(player, exitRange))
+            .flatMap(Collection::stream)
+            .collect(Collectors.toSet());
+
+        this.loadedBlocks.removeIf(block -> unloadBlockIfNotVisible(inReach, block));
         visible.stream()
             .filter(block -> !this.loadBlock(block))
             .forEach(block -> {
@@ -610,12 +747,11 @@ public class Scene {
     }
 
     public void onUnloadBlock(SceneBlock block) {
-        List<GameEntity> toRemove = this.getEntities().values().stream()
-                .filter(e -> e.getBlockId() == block.id).toList();
+        List<GameEntity> toRemove = List.copyOf(this.getEntitiesByBlockId(block.id));
 
         if (toRemove.size() > 0) {
             toRemove.forEach(this::removeEntityDirectly);
-            this.broadcastPacket(new PacketSceneEntityDisappearNotify(toRemove, VisionType.VISION_TYPE_REMOVE));
+            this.visibility.disappear(toRemove, VisionType.VISION_TYPE_REMOVE);
         }
 
         for (SceneGroup group : block.groups.values()) {
@@ -671,9 +807,12 @@ public class Scene {
     // Broadcasting
 
     public void broadcastPacket(BasePacket packet) {
-        // Send to all players - might have to check if player has been sent data packets
-        for (Player player : this.getPlayers()) {
-            player.getSession().send(packet);
+        // Encode the body once when there is more than one recipient
+        try (SharedPacketBody shared = this.getPlayerCount() > 1 ? packet.shareBody() : null) {
+            // Send to all players - might have to check if player has been sent data packets
+            for (Player player : this.getPlayers()) {
+                player.getSession().send(packet);
+            }
         }
     }
 
@@ -682,13 +821,16 @@ public class Scene {
         if (this.getPlayerCount() == 1 && this.getPlayers().get(0) == excludedPlayer) {
             return;
         }
-        // Send to all players - might have to check if player has been sent data packets
-        for (Player player : this.getPlayers()) {
-            if (player == excludedPlayer) {
-                continue;
+        // Encode the body once when there is more than one recipient
+        try (SharedPacketBody shared = this.getPlayerCount() > 2 ? packet.shareBody() : null) {
+            // Send to all players - might have to check if player has been sent data packets
+            for (Player player : this.getPlayers()) {
+                if (player == excludedPlayer) {
+                    continue;
+                }
+                // Send
+                player.getSession().send(packet);
             }
-            // Send
-            player.getSession().send(packet);
         }
     }
 
@@ -710,27 +852,48 @@ public class Scene {
         }
     }
     public void loadNpcForPlayerEnter(Player player) {
-        this.npcBornEntrySet.addAll(loadNpcForPlayer(player));
+        // The client forgot about every group while loading the scene.
+        this.npcBornEntries.remove(player);
+        this.loadNpcForPlayer(player);
     }
-    private List<SceneNpcBornEntry> loadNpcForPlayer(Player player) {
-        var pos = player.getPosition();
+
+    private void loadNpcForPlayer(Player player) {
+        var pos = player.getPosition().toDoubleArray();
         var data = GameData.getSceneNpcBornData().get(getId());
         if (data == null) {
-            return List.of();
+            return;
         }
 
-        var npcList = SceneIndexManager.queryNeighbors(data.getIndex(), pos.toDoubleArray(),
-                Grasscutter.getConfig().server.game.loadEntitiesForPlayerRange);
+        int range = Grasscutter.getConfig().server.game.loadEntitiesForPlayerRange;
+        var loaded = this.npcBornEntries.computeIfAbsent(player, p -> ConcurrentHashMap.newKeySet());
 
-        var sceneNpcBornEntries = npcList.stream()
-            .filter(i -> !this.npcBornEntrySet.contains(i))
+        // Groups are loaded within the view range, but only unloaded a bit further away
+        var toLoad = SceneIndexManager.queryNeighbors(data.getIndex(), pos, range).stream()
+            .filter(i -> !loaded.contains(i))
             .toList();
-
-        if (sceneNpcBornEntries.size() > 0) {
-            this.broadcastPacket(new PacketGroupSuiteNotify(sceneNpcBornEntries));
-            Grasscutter.getLogger().debug("Loaded Npc Group Suite {}", sceneNpcBornEntries);
+        var inReach = new HashSet<>(SceneIndexManager.queryNeighbors(data.getIndex(), pos, (int) (range * SceneVisibility.EXIT_FACTOR)));
+
+        var leaving = loaded.stream().filter(i -> !inReach.contains(i)).toList();
+        loaded.removeAll(leaving);
+        loaded.addAll(toLoad);
+
+        if (leaving.size() > 0) {
+            // Several entries can share a group, which stays as long as one of them is in reach
+            var stillLoaded = loaded.stream().map(SceneNpcBornEntry::getGroupId).collect(Collectors.toSet());
+            var toUnload = leaving.stream()
+                .map(SceneNpcBornEntry::getGroupId)
+                .filter(groupId -> !stillLoaded.contains(groupId))
+                .distinct()
+                .toList();
+            if (toUnload.size() > 0) {
+                player.sendPacket(new PacketGroupUnloadNotify(toUnload));
+                Grasscutter.getLogger().debug("Unload NPC Group {}", toUnload);
+            }
+        }
+        if (toLoad.size() > 0) {
+            player.sendPacket(new PacketGroupSuiteNotify(toLoad));
+            Grasscutter.getLogger().debug("Loaded Npc Group Suite {}", toLoad);
         }
-        return npcList;
     }
 
     public void loadGroupForQuest(List<QuestGroupSuite> sceneGroupSuite) {
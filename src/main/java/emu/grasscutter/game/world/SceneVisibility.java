@@ -0,0 +1,252 @@
+package emu.grasscutter.game.world;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import emu.grasscutter.Grasscutter;
+import emu.grasscutter.game.entity.EntityAvatar;
+import emu.grasscutter.game.entity.EntityClientGadget;
+import emu.grasscutter.game.entity.GameEntity;
+import emu.grasscutter.game.player.Player;
+import emu.grasscutter.net.proto.VisionTypeOuterClass.VisionType;
+import emu.grasscutter.server.packet.send.PacketSceneEntityAppearNotify;
+import emu.grasscutter.server.packet.send.PacketSceneEntityDisappearNotify;
+import emu.grasscutter.utils.Position;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2LongMap;
+import it.unimi.dsi.fastutil.objects.Object2LongOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
+
+/**
+ * Keeps track of which entities of a scene each player has been told about.
+ * Entities are bucketed on a uniform grid over the XZ plane, with cells as large as the view range.
+ * An entity appears to a player once it is within {@code loadEntitiesForPlayerRange},
+ * and only disappears again once it is more than {@link #EXIT_FACTOR} times that away, so it doesn't flap at the edge.
+ * Avatars and client gadgets are not tracked, everyone in the scene always sees them.
+ * Entities added for a single client, like private drops, are only ever shown to the player they belong to.
+ */
+final class SceneVisibility {
+    /* How much further than the view range an entity has to be before it leaves the view. */
+    static final float EXIT_FACTOR = 1.2f;
+
+    private final Scene scene;
+    private final float enterRange;
+    private final float exitRange;
+    private final float cellSize;
+    /* How many cells around a player's own cell can hold entities within the exit range. */
+    private final int cellReach;
+
+    private final Long2ObjectMap<Set<GameEntity>> cells = new Long2ObjectOpenHashMap<>();
+    private final Object2LongMap<GameEntity> entityCells = new Object2LongOpenHashMap<>();
+    /* The tracked entities each player currently sees, by entity id. */
+    private final Map<Player, Int2ObjectMap<GameEntity>> visible = new ConcurrentHashMap<>();
+    /* The players single-client entities belong to, by entity id. */
+    private final Int2ObjectMap<Player> owners = new Int2ObjectOpenHashMap<>();
+
+    SceneVisibility(Scene scene) {
+        this.scene = scene;
+        this.enterRange = Math.max(1, Grasscutter.getConfig().server.game.loadEntitiesForPlayerRange);
+        this.exitRange = this.enterRange * EXIT_FACTOR;
+        this.cellSize = this.enterRange;
+        this.cellReach = (int) Math.ceil(this.exitRange / this.cellSize);
+    }
+
+    static boolean isTracked(GameEntity entity) {
+        return !(entity instanceof EntityAvatar) && !(entity instanceof EntityClientGadget);
+    }
+
+    synchronized void add(GameEntity entity) {
+        if (isTracked(entity)) {
+            this.index(entity, this.cellOf(entity.getPosition()));
+        }
+    }
+
+    /**
+     * Adds an entity which only the given player may see, and marks it as seen by them, as they are told about it directly.
+     */
+    synchronized void addOwned(Player owner, GameEntity entity) {
+        if (isTracked(entity)) {
+            this.owners.put(entity.getId(), owner);
+            this.index(entity, this.cellOf(entity.getPosition()));
+            this.getVisible(owner).put(entity.getId(), entity);
+        }
+    }
+
+    synchronized void remove(GameEntity entity) {
+        if (this.entityCells.containsKey(entity)) {
+            this.unindex(entity, this.entityCells.removeLong(entity));
+        }
+        this.owners.remove(entity.getId());
+    }
+
+    /**
+     * Tells every player about the given new entities they can see.
+     */
+    synchronized void appear(Collection<? extends GameEntity> entities, VisionType visionType) {
+        for (Player player : this.scene.getPlayers()) {
+            var seen = this.getVisible(player);
+            List<GameEntity> toSend = new ArrayList<>(entities.size());
+            for (GameEntity entity : entities) {
+                if (!isTracked(entity)) {
+                    toSend.add(entity);
+                } else if (this.canSee(player, entity) && this.isWithin(player, entity, this.enterRange)) {
+                    seen.put(entity.getId(), entity);
+                    toSend.add(entity);
+                }
+            }
+            if (!toSend.isEmpty()) {
+                player.sendPacket(new PacketSceneEntityAppearNotify(toSend, visionType));
+            }
+        }
+    }
+
+    /**
+     * Tells every player who could see one of the given entities that it is gone.
+     */
+    synchronized void disappear(Collection<? extends GameEntity> entities, VisionType visionType) {
+        for (Player player : this.scene.getPlayers()) {
+            var seen = this.getVisible(player);
+            List<GameEntity> toSend = new ArrayList<>(entities.size());
+            for (GameEntity entity : entities) {
+                if (!isTracked(entity) || seen.remove(entity.getId()) != null) {
+                    toSend.add(entity);
+                }
+            }
+            if (!toSend.isEmpty()) {
+                player.sendPacket(new PacketSceneEntityDisappearNotify(toSend, visionType));
+            }
+        }
+    }
+
+    /**
+     * Forgets what a player has seen and collects everything the player can see from scratch,
+     * for when the client has just (re)loaded the scene.
+     * @return All entities the player should be told about.
+     */
+    synchronized List<GameEntity> reset(Player player) {
+        var seen = this.getVisible(player);
+        seen.clear();
+
+        List<GameEntity> entities = new ArrayList<>();
+        for (GameEntity entity : this.scene.getEntities().values()) {
+            if (!isTracked(entity)) {
+                entities.add(entity);
+            } else if (this.canSee(player, entity) && this.isWithin(player, entity, this.enterRange)) {
+                seen.put(entity.getId(), entity);
+                entities.add(entity);
+            }
+        }
+        return entities;
+    }
+
+    void removePlayer(Player player) {
+        this.visible.remove(player);
+    }
+
+    /**
+     * Moves entities to the cells they are in now, and sends every player the entities that entered or left their view.
+     */
+    synchronized void update() {
+        this.reindexMoved();
+
+        for (Player player : this.scene.getPlayers()) {
+            var seen = this.getVisible(player);
+            Position pos = player.getPosition();
+
+            // Whatever left the scene without a notify, or walked out of range.
+            List<GameEntity> left = new ArrayList<>();
+            seen.values().removeIf(entity -> {
+                if (!this.scene.isInScene(entity)) return true;
+                if (this.isWithin(pos, entity, this.exitRange)) return false;
+                left.add(entity);
+                return true;
+            });
+
+            List<GameEntity> entered = new ArrayList<>();
+            int cx = this.cellCoord(pos.getX());
+            int cz = this.cellCoord(pos.getZ());
+            for (int x = cx - this.cellReach; x <= cx + this.cellReach; x++) {
+                for (int z = cz - this.cellReach; z <= cz + this.cellReach; z++) {
+                    var cell = this.cells.get(cellKey(x, z));
+                    if (cell == null) continue;
+                    for (GameEntity entity : cell) {
+                        if (!seen.containsKey(entity.getId()) && this.canSee(player, entity) && this.isWithin(pos, entity, this.enterRange)) {
+                            seen.put(entity.getId(), entity);
+                            entered.add(entity);
+                        }
+                    }
+                }
+            }
+
+            if (!left.isEmpty()) {
+                player.sendPacket(new PacketSceneEntityDisappearNotify(left, VisionType.VISION_TYPE_MISS));
+            }
+            if (!entered.isEmpty()) {
+                player.sendPacket(new PacketSceneEntityAppearNotify(entered, VisionType.VISION_TYPE_MEET));
+            }
+        }
+    }
+
+    private void reindexMoved() {
+        List<GameEntity> moved = new ArrayList<>();
+        for (var entry : this.entityCells.object2LongEntrySet()) {
+            if (this.cellOf(entry.getKey().getPosition()) != entry.getLongValue()) {
+                moved.add(entry.getKey());
+            }
+        }
+        for (GameEntity entity : moved) {
+            this.unindex(entity, this.entityCells.getLong(entity));
+            this.index(entity, this.cellOf(entity.getPosition()));
+        }
+    }
+
+    private void index(GameEntity entity, long cell) {
+        this.cells.computeIfAbsent(cell, k -> new ObjectOpenHashSet<>()).add(entity);
+        this.entityCells.put(entity, cell);
+    }
+
+    private void unindex(GameEntity entity, long cell) {
+        var entities = this.cells.get(cell);
+        if (entities != null && entities.remove(entity) && entities.isEmpty()) {
+            this.cells.remove(cell);
+        }
+    }
+
+    private Int2ObjectMap<GameEntity> getVisible(Player player) {
+        return this.visible.computeIfAbsent(player, p -> new Int2ObjectOpenHashMap<>());
+    }
+
+    private boolean canSee(Player player, GameEntity entity) {
+        Player owner = this.owners.get(entity.getId());
+        return owner == null || owner == player;
+    }
+
+    private boolean isWithin(Player player, GameEntity entity, float range) {
+        return this.isWithin(player.getPosition(), entity, range);
+    }
+
+    private boolean isWithin(Position pos, GameEntity entity, float range) {
+        float dx = entity.getPosition().getX() - pos.getX();
+        float dz = entity.getPosition().getZ() - pos.getZ();
+        return dx * dx + dz * dz <= range * range;
+    }
+
+    private int cellCoord(float coord) {
+        return (int) Math.floor(coord / this.cellSize);
+    }
+
+    private long cellOf(Position pos) {
+        return cellKey(this.cellCoord(pos.getX()), this.cellCoord(pos.getZ()));
+    }
+
+    private static long cellKey(int x, int z) {
+        return ((long) x << 32) | (z & 0xFFFFFFFFL);
+    }
+}
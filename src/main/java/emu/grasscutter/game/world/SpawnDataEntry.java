@@ -28,6 +28,10 @@ public class SpawnDataEntry {
         );
     }
 
+    public long getBlockKey() {
+        return this.getBlockId().getKey();
+    }
+
     public static class SpawnGroupEntry {
         @Getter private int sceneId;
         @Getter private int groupId;
@@ -36,6 +40,9 @@ public class SpawnDataEntry {
     }
 
     public static class GridBlockId {
+        /* How many grid blocks are adjacent to a position, over all scales. */
+        public static final int ADJACENT_COUNT = 5*5*GameDepot.BLOCK_SIZE.length;
+
         @Getter private int sceneId;
         @Getter private int scale;
         @Getter private int x;
@@ -48,6 +55,21 @@ public class SpawnDataEntry {
             this.z = z;
         }
 
+        public static GridBlockId fromKey(long key) {
+            return new GridBlockId((int) (key >>> 40), (int) (key >>> 32) & 0xFF, (short) (key >>> 16), (short) key);
+        }
+
+        /**
+         * Packs a grid block into a single long: 24 bits of scene id, 8 bits of scale, and 16 bits each of x and z.
+         */
+        public static long toKey(int sceneId, int scale, int x, int z) {
+            return ((long) sceneId << 40) | ((long) (scale & 0xFF) << 32) | ((long) (x & 0xFFFF) << 16) | (z & 0xFFFF);
+        }
+
+        public long getKey() {
+            return toKey(this.sceneId, this.scale, this.x, this.z);
+        }
+
         @Override
         public String toString() {
             return "SpawnDataEntryScaledPoint{" +
@@ -71,19 +93,23 @@ public class SpawnDataEntry {
             return Objects.hash(sceneId, scale, x, z);
         }
 
-        public static GridBlockId[] getAdjacentGridBlockIds(int sceneId, Position pos) {
-            GridBlockId[] results = new GridBlockId[5*5*GameDepot.BLOCK_SIZE.length];
+        /**
+         * Writes the keys of the grid blocks around a position, at every scale, into an array.
+         * @param keys Has to hold at least {@link #ADJACENT_COUNT} keys.
+         * @return The number of keys written.
+         */
+        public static int getAdjacentGridBlockKeys(int sceneId, Position pos, long[] keys) {
             int t=0;
             for (int scale = 0; scale < GameDepot.BLOCK_SIZE.length; scale++) {
                 int x = ((int)(pos.getX()/GameDepot.BLOCK_SIZE[scale]));
                 int z = ((int)(pos.getZ()/GameDepot.BLOCK_SIZE[scale]));
                 for (int i=x-2; i<x+3; i++) {
                     for (int j=z-2; j<z+3; j++) {
-                        results[t++] = new GridBlockId(sceneId, scale, i, j);
+                        keys[t++] = toKey(sceneId, scale, i, j);
                     }
                 }
             }
-            return results;
+            return t;
         }
 
         public static int getScale(int gadgetId) {
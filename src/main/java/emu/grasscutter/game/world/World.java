@@ -15,11 +15,13 @@ import emu.grasscutter.data.GameData;
 import emu.grasscutter.data.excels.DungeonData;
 import emu.grasscutter.data.excels.SceneData;
 import emu.grasscutter.net.packet.BasePacket;
+import emu.grasscutter.net.packet.SharedPacketBody;
 import emu.grasscutter.net.proto.EnterTypeOuterClass.EnterType;
 import emu.grasscutter.scripts.data.SceneConfig;
 import emu.grasscutter.server.event.player.PlayerTeleportEvent;
 import emu.grasscutter.server.event.player.PlayerTeleportEvent.TeleportType;
 import emu.grasscutter.server.game.GameServer;
+import emu.grasscutter.server.game.GameSessionManager;
 import emu.grasscutter.server.packet.send.PacketDelTeamEntityNotify;
 import emu.grasscutter.server.packet.send.PacketPlayerEnterSceneNotify;
 import emu.grasscutter.server.packet.send.PacketScenePlayerInfoNotify;
@@ -45,6 +47,9 @@ public class World implements Iterable<Player> {
 
     private boolean isMultiplayer;
 
+    /* The logic shard every player in this world runs on, see SessionExecutor. */
+    private final int logicShard;
+
     public World(Player player) {
         this(player, false);
     }
@@ -59,6 +64,11 @@ public class World implements Iterable<Player> {
         this.worldLevel = player.getWorldLevel();
         this.isMultiplayer = isMultiplayer;
 
+        // Run on the owner's home shard, not wherever a previous world left them, so worlds stay spread by conversation.
+        this.logicShard = player.getSession() != null
+            ? player.getSession().getLogicExecutor().getHomeShardIndex()
+            : GameSessionManager.getLogicExecutors().getShardIndex(player.getUid());
+
         this.owner.getServer().registerWorld(this);
     }
 
@@ -66,6 +76,10 @@ public class World implements Iterable<Player> {
         return owner;
     }
 
+    public int getLogicShard() {
+        return this.logicShard;
+    }
+
     public GameServer getServer() {
         return server;
     }
@@ -146,6 +160,11 @@ public class World implements Iterable<Player> {
         player.setWorld(this);
         this.getPlayers().add(player);
 
+        // From now on the player's packets run on the same thread as everyone else's in this world
+        if (player.getSession() != null) {
+            player.getSession().getLogicExecutor().bind(this.logicShard);
+        }
+
         // Set player variables
         player.setPeerId(this.getNextPeerId());
         player.getTeamManager().setEntityId(this.getNextEntityId(EntityIdType.TEAM));
@@ -324,9 +343,12 @@ public class World implements Iterable<Player> {
     }
 
     public void broadcastPacket(BasePacket packet) {
-        // Send to all players - might have to check if player has been sent data packets
-        for (Player player : this.getPlayers()) {
-            player.getSession().send(packet);
+        // Encode the body once when there is more than one recipient
+        try (SharedPacketBody shared = this.getPlayerCount() > 1 ? packet.shareBody() : null) {
+            // Send to all players - might have to check if player has been sent data packets
+            for (Player player : this.getPlayers()) {
+                player.getSession().send(packet);
+            }
         }
     }
 
@@ -3,13 +3,20 @@ package emu.grasscutter.net.packet;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 
+import com.google.protobuf.CodedOutputStream;
 import com.google.protobuf.GeneratedMessageV3;
+import com.google.protobuf.MessageLite;
 import emu.grasscutter.net.proto.PacketHeadOuterClass.PacketHead;
 import emu.grasscutter.utils.Crypto;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.buffer.Unpooled;
 
 public class BasePacket {
     private static final int const1 = 17767; // 0x4567
     private static final int const2 = -30293; // 0x89ab
+    private static final int FRAME_SIZE = 2 + 2 + 2 + 4 + 2; // consts, opcode, header length, data length
 
     private int opcode;
     private boolean shouldBuildHeader = false;
@@ -17,6 +24,13 @@ public class BasePacket {
     private byte[] header;
     private byte[] data;
 
+    // Kept unserialized until the packet is encoded, see encode()
+    private PacketHead headerProto;
+    private MessageLite dataProto;
+
+    // Set while the packet is being broadcast, see shareBody()
+    private SharedPacketBody sharedBody;
+
     // Encryption
     private boolean useDispatchKey;
     public boolean shouldEncrypt = true;
@@ -52,11 +66,15 @@ public class BasePacket {
     }
 
     public byte[] getHeader() {
+        if (this.header == null && this.headerProto != null) {
+            this.header = this.headerProto.toByteArray();
+        }
         return header;
     }
 
     public void setHeader(byte[] header) {
         this.header = header;
+        this.headerProto = null;
     }
 
     public boolean shouldBuildHeader() {
@@ -64,58 +82,166 @@ public class BasePacket {
     }
 
     public byte[] getData() {
+        if (this.data == null && this.dataProto != null) {
+            this.data = this.dataProto.toByteArray();
+        }
         return data;
     }
 
     public void setData(byte[] data) {
         this.data = data;
+        this.dataProto = null;
+        this.sharedBody = null;
     }
 
     public void setData(GeneratedMessageV3 proto) {
-        this.data = proto.toByteArray();
+        this.data = null;
+        this.dataProto = proto;
+        this.sharedBody = null;
     }
 
     @SuppressWarnings("rawtypes")
     public void setData(GeneratedMessageV3.Builder proto) {
-        this.data = proto.build().toByteArray();
+        this.setData((GeneratedMessageV3) proto.build());
     }
 
     public BasePacket buildHeader(int clientSequence) {
-        if (this.getHeader() != null && clientSequence == 0) {
+        if ((this.header != null || this.headerProto != null) && clientSequence == 0) {
             return this;
         }
-        setHeader(PacketHead.newBuilder().setClientSequenceId(clientSequence).setSentMs(System.currentTimeMillis()).build().toByteArray());
+        this.header = null;
+        this.headerProto = PacketHead.newBuilder().setClientSequenceId(clientSequence).setSentMs(System.currentTimeMillis()).build();
         return this;
     }
 
-    public byte[] build() {
-        if (getHeader() == null) {
-            this.header = new byte[0];
+    private int getHeaderSize() {
+        if (this.header != null) return this.header.length;
+        return this.headerProto != null ? this.headerProto.getSerializedSize() : 0;
+    }
+
+    private int getDataSize() {
+        if (this.data != null) return this.data.length;
+        return this.dataProto != null ? this.dataProto.getSerializedSize() : 0;
+    }
+
+    /**
+     * @return The size of the encoded packet in bytes.
+     */
+    public int getEncodedSize() {
+        return FRAME_SIZE + this.getHeaderSize() + this.getDataSize();
+    }
+
+    /**
+     * Encodes the packet into a single buffer from the given allocator.
+     * The header and proto are serialized straight into the buffer, which is then encrypted in place.
+     * The caller is responsible for releasing the returned buffer.
+     */
+    public ByteBuf encode(ByteBufAllocator allocator) {
+        SharedPacketBody shared = this.sharedBody;
+        if (shared != null && shared.matches(this.getEncryptionKey())) {
+            return this.encodeShared(allocator, shared);
+        }
+
+        ByteBuf buf = allocator.ioBuffer(this.getEncodedSize());
+        try {
+            this.encodeTo(buf);
+        } catch (Exception e) {
+            buf.release();
+            throw e;
         }
+        return buf;
+    }
 
-        if (getData() == null) {
-            this.data = new byte[0];
+    /**
+     * Encodes the body of this packet once and shares it between every encode() until the
+     * returned handle is closed. Each recipient then only gets a freshly built header.
+     * Meant to wrap a broadcast loop in try-with-resources.
+     * @return The handle, or null if the body is already shared by an outer broadcast.
+     */
+    public SharedPacketBody shareBody() {
+        if (this.sharedBody != null) {
+            return null;
         }
 
-        ByteArrayOutputStream baos = new ByteArrayOutputStream(2 + 2 + 2 + 4 + getHeader().length + getData().length + 2);
+        int dataSize = this.getDataSize();
+        ByteBuf plain = PooledByteBufAllocator.DEFAULT.ioBuffer(dataSize + 2);
+        writeMessage(plain, this.data, this.dataProto, dataSize);
+        plain.writeShort(const2);
+
+        this.sharedBody = new SharedPacketBody(this, this.getEncryptionKey(), plain);
+        return this.sharedBody;
+    }
 
-        this.writeUint16(baos, const1);
-        this.writeUint16(baos, opcode);
-        this.writeUint16(baos, header.length);
-        this.writeUint32(baos, data.length);
-        this.writeBytes(baos, header);
-        this.writeBytes(baos, data);
-        this.writeUint16(baos, const2);
+    void unshareBody(SharedPacketBody body) {
+        if (this.sharedBody == body) {
+            this.sharedBody = null;
+        }
+    }
 
-        byte[] packet = baos.toByteArray();
+    private ByteBuf encodeShared(ByteBufAllocator allocator, SharedPacketBody shared) {
+        int headerSize = this.getHeaderSize();
+        ByteBuf prefix = allocator.ioBuffer(FRAME_SIZE - 2 + headerSize);
+        prefix.writeShort(const1);
+        prefix.writeShort(opcode);
+        prefix.writeShort(headerSize);
+        prefix.writeInt(shared.getDataSize());
+        writeMessage(prefix, this.header, this.headerProto, headerSize);
 
         if (this.shouldEncrypt) {
-            Crypto.xor(packet, this.useDispatchKey() ? Crypto.DISPATCH_KEY : Crypto.ENCRYPT_KEY);
+            Crypto.xor(prefix, this.getEncryptionKey());
         }
 
+        return allocator.compositeDirectBuffer(2).addComponents(true, prefix, shared.retainedBody(prefix.readableBytes()));
+    }
+
+    private byte[] getEncryptionKey() {
+        if (!this.shouldEncrypt) {
+            return null;
+        }
+        return this.useDispatchKey() ? Crypto.DISPATCH_KEY : Crypto.ENCRYPT_KEY;
+    }
+
+    public byte[] build() {
+        byte[] packet = new byte[this.getEncodedSize()];
+        this.encodeTo(Unpooled.wrappedBuffer(packet).writerIndex(0));
         return packet;
     }
 
+    private void encodeTo(ByteBuf buf) {
+        int start = buf.writerIndex();
+        int headerSize = this.getHeaderSize();
+        int dataSize = this.getDataSize();
+
+        buf.writeShort(const1);
+        buf.writeShort(opcode);
+        buf.writeShort(headerSize);
+        buf.writeInt(dataSize);
+        writeMessage(buf, this.header, this.headerProto, headerSize);
+        writeMessage(buf, this.data, this.dataProto, dataSize);
+        buf.writeShort(const2);
+
+        if (this.shouldEncrypt) {
+            Crypto.xor(buf.slice(start, buf.writerIndex() - start), this.useDispatchKey() ? Crypto.DISPATCH_KEY : Crypto.ENCRYPT_KEY);
+        }
+    }
+
+    private static void writeMessage(ByteBuf buf, byte[] bytes, MessageLite proto, int size) {
+        if (bytes != null) {
+            buf.writeBytes(bytes);
+        } else if (proto != null && size > 0) {
+            // Serialize directly into the buffer's memory instead of an intermediate array
+            int index = buf.writerIndex();
+            try {
+                CodedOutputStream output = CodedOutputStream.newInstance(buf.nioBuffer(index, size));
+                proto.writeTo(output);
+                output.flush();
+            } catch (IOException e) {
+                throw new IllegalStateException("Failed to serialize packet", e);
+            }
+            buf.writerIndex(index + size);
+        }
+    }
+
     public void writeUint16(ByteArrayOutputStream baos, int i) {
         // Unsigned short
         baos.write((byte) ((i >>> 8) & 0xFF));
@@ -1,9 +1,29 @@
 package emu.grasscutter.net.packet;
 
 import emu.grasscutter.server.game.GameSession;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
 
 public abstract class PacketHandler {
 	protected static final byte[] EMPTY_BYTE_ARRAY = new byte[0];
 	
 	public abstract void handle(GameSession session, byte[] header, byte[] payload) throws Exception;
+
+	/**
+	 * Handles a packet straight from the receive buffer.
+	 * The header and payload are only valid until this method returns.
+	 * Hot handlers should override this and parse with {@code parseFrom(payload.nioBuffer())},
+	 * everything else falls back to the array version.
+	 */
+	public void handle(GameSession session, ByteBuf header, ByteBuf payload) throws Exception {
+		this.handle(session, toArray(header), toArray(payload));
+	}
+
+	protected static byte[] toArray(ByteBuf buf) {
+		if (!buf.isReadable()) {
+			return EMPTY_BYTE_ARRAY;
+		}
+		// Reuses the backing array when the buffer wraps it exactly
+		return ByteBufUtil.getBytes(buf, buf.readerIndex(), buf.readableBytes(), false);
+	}
 }
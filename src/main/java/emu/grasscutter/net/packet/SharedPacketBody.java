@@ -0,0 +1,72 @@
+package emu.grasscutter.net.packet;
+
+import emu.grasscutter.utils.Crypto;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+
+/**
+ * The serialized body (and trailer) of a packet which is being broadcast.
+ * The encrypted body only depends on where it starts in the frame, and that offset only changes
+ * when the headers of two recipients differ in length, so one encrypted copy is kept per offset
+ * and handed out as retained slices.
+ */
+public final class SharedPacketBody implements AutoCloseable {
+    private final BasePacket packet;
+    private final byte[] key;
+    private final ByteBuf plain;
+    private final Int2ObjectMap<ByteBuf> encrypted = new Int2ObjectOpenHashMap<>(2);
+    private boolean closed;
+
+    SharedPacketBody(BasePacket packet, byte[] key, ByteBuf plain) {
+        this.packet = packet;
+        this.key = key;
+        this.plain = plain;
+    }
+
+    boolean matches(byte[] key) {
+        return !this.closed && this.key == key;
+    }
+
+    int getDataSize() {
+        return this.plain.readableBytes() - 2;
+    }
+
+    /**
+     * @param offset Where the body starts in the frame.
+     * @return A retained slice of the body and trailer, encrypted for that offset.
+     */
+    ByteBuf retainedBody(int offset) {
+        if (this.key == null) {
+            return this.plain.retainedSlice();
+        }
+
+        ByteBuf body = this.encrypted.get(offset);
+        if (body == null) {
+            // Pad the front so the key lines up exactly as it would in the full frame
+            int size = this.plain.readableBytes();
+            body = PooledByteBufAllocator.DEFAULT.ioBuffer(offset + size);
+            body.writeZero(offset);
+            body.writeBytes(this.plain, this.plain.readerIndex(), size);
+            Crypto.xor(body, this.key);
+            body.readerIndex(offset);
+            this.encrypted.put(offset, body);
+        }
+        return body.retainedSlice();
+    }
+
+    @Override
+    public void close() {
+        if (this.closed) {
+            return;
+        }
+        this.closed = true;
+        this.packet.unshareBody(this);
+
+        // Recipients still hold their own references until KCP has sent them
+        this.plain.release();
+        this.encrypted.values().forEach(ByteBuf::release);
+        this.encrypted.clear();
+    }
+}
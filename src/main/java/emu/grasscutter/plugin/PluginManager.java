@@ -14,6 +14,7 @@ import java.io.*;
 import java.lang.reflect.Method;
 import java.net.*;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.jar.*;
 
 /**
@@ -24,6 +25,8 @@ public final class PluginManager {
     private final Map<String, Plugin> plugins = new LinkedHashMap<>();
     /* All currently registered listeners per plugin. */
     private final Map<Plugin, List<EventHandler<? extends Event>>> listeners = new LinkedHashMap<>();
+    /* The listeners for each event class, sorted by priority. Cleared whenever the listeners change. */
+    private final Map<Class<?>, EventHandler<?>[]> handlerCache = new ConcurrentHashMap<>();
 
     public PluginManager() {
         this.loadPlugins(); // Load all plugins from the plugins directory.
@@ -181,7 +184,10 @@ public final class PluginManager {
         // Add the plugin to the list of loaded plugins.
         this.plugins.put(identifier.name, plugin);
         // Create a collection for the plugin's listeners.
-        this.listeners.put(plugin, new ArrayList<>());
+        synchronized (this.listeners) {
+            this.listeners.put(plugin, new ArrayList<>());
+            this.handlerCache.clear();
+        }
 
         // Call the plugin's onLoad method.
         try {
@@ -222,7 +228,10 @@ public final class PluginManager {
      * @param listener The event listener.
      */
     public void registerListener(Plugin plugin, EventHandler<? extends Event> listener) {
-        this.listeners.get(plugin).add(listener);
+        synchronized (this.listeners) {
+            this.listeners.get(plugin).add(listener);
+            this.handlerCache.clear();
+        }
     }
 
     /**
@@ -231,25 +240,46 @@ public final class PluginManager {
      * @param event The event to invoke.
      */
     public void invokeEvent(Event event) {
-        EnumSet.allOf(HandlerPriority.class)
-            .forEach(priority -> this.checkAndFilter(event, priority));
+        for (EventHandler<?> handler : this.getHandlers(event.getClass())) {
+            this.invokeHandler(event, handler);
+        }
     }
 
     /**
-     * Check an event to handlers for the priority.
+     * Checks if any listener would receive an event of the provided class.
+     * Used to skip creating events nobody listens to.
      *
-     * @param event    The event being called.
-     * @param priority The priority to call for.
+     * @param eventClass The class of the event.
+     * @return True if at least one listener handles the event.
      */
-    private void checkAndFilter(Event event, HandlerPriority priority) {
-        // Add all listeners from every plugin.
-        this.listeners.values().stream()
-            .flatMap(Collection::stream)
-            // Filter the listeners by priority.
-            .filter(handler -> handler.handles().isInstance(event))
-            .filter(handler -> handler.getPriority() == priority)
-            // Invoke the event.
-            .forEach(handler -> this.invokeHandler(event, handler));
+    public boolean hasListeners(Class<? extends Event> eventClass) {
+        return this.getHandlers(eventClass).length > 0;
+    }
+
+    /**
+     * Gets every listener which handles the event class, sorted by priority.
+     *
+     * @param eventClass The class of the event.
+     * @return The listeners, in the order they should be invoked.
+     */
+    private EventHandler<?>[] getHandlers(Class<?> eventClass) {
+        EventHandler<?>[] handlers = this.handlerCache.get(eventClass);
+        if (handlers != null) {
+            return handlers;
+        }
+
+        synchronized (this.listeners) {
+            // Listeners from every plugin, in registration order.
+            handlers = this.listeners.values().stream()
+                .flatMap(Collection::stream)
+                .filter(handler -> handler.handles().isAssignableFrom(eventClass))
+                .filter(handler -> handler.getPriority() != null)
+                // Stable, so plugins and listeners keep their order within a priority.
+                .sorted(Comparator.comparing(EventHandler::getPriority))
+                .toArray(EventHandler<?>[]::new);
+            this.handlerCache.put(eventClass, handlers);
+        }
+        return handlers;
     }
 
     /**
@@ -275,6 +305,8 @@ public final class PluginManager {
         } catch (Exception exception) {
             Grasscutter.getLogger().error(translate("plugin.enabling_failed", plugin.getName()), exception);
         }
+
+        this.handlerCache.clear();
     }
 
     /**
@@ -291,7 +323,10 @@ public final class PluginManager {
         }
 
         // Un-register all listeners.
-        this.listeners.remove(plugin);
+        synchronized (this.listeners) {
+            this.listeners.remove(plugin);
+            this.handlerCache.clear();
+        }
     }
 
     /**
@@ -33,6 +33,14 @@ public class SceneScriptManager {
      */
     private final Map<Integer, Set<SceneTrigger>> currentTriggers;
     private final Map<Integer, EntityRegion> regions; // <EntityId-Region>
+    /**
+     * spatial index over the regions, rebuilt on the next check after regions change
+     */
+    private volatile RTree<EntityRegion, Geometry> regionIndex;
+    /**
+     * avatar entity id - regions it was inside during the last check
+     */
+    private Map<Integer, Set<EntityRegion>> avatarRegions = new HashMap<>();
     private final Map<Integer,SceneGroup> sceneGroups;
     private ScriptMonsterTideService scriptMonsterTideService;
     private ScriptMonsterSpawnService scriptMonsterSpawnService;
@@ -121,8 +129,9 @@ public class SceneScriptManager {
         return regions.get(id);
     }
 
-    public void registerRegion(EntityRegion region) {
+    public synchronized void registerRegion(EntityRegion region) {
         regions.put(region.getId(), region);
+        this.regionIndex = null;
         Grasscutter.getLogger().debug("Registered region {} from group {}", region.getMetaRegion().config_id, region.getGroupId());
     }
     public void registerRegionInGroupSuite(SceneGroup group, SceneSuite suite) {
@@ -133,7 +142,21 @@ public class SceneScriptManager {
         var instance = regions.values().stream()
             .filter(r -> r.getConfigId() == region.config_id)
             .findFirst();
-        instance.ifPresent(entityRegion -> regions.remove(entityRegion.getId()));
+        instance.ifPresent(entityRegion -> {
+            regions.remove(entityRegion.getId());
+            this.regionIndex = null;
+        });
+    }
+
+    private RTree<EntityRegion, Geometry> getRegionIndex() {
+        var index = this.regionIndex;
+        if (index == null) {
+            synchronized (this) {
+                index = SceneIndexManager.buildIndex(3, this.regions.values(), r -> r.getMetaRegion().toRectangle());
+                this.regionIndex = index;
+            }
+        }
+        return index;
     }
 
     public Map<Integer, Set<SceneGroup>> getLoadedGroupSetPerBlock() {
@@ -186,21 +209,63 @@ public class SceneScriptManager {
     }
 
     public void checkRegions() {
-        if (this.regions.size() == 0) {
+        if (this.regions.size() == 0 && this.avatarRegions.isEmpty()) {
             return;
         }
 
-        for (var region : this.regions.values()) {
-            // currently all condition_ENTER_REGION Events check for avatar, so we have no necessary to add other types of entity
-            getScene().getEntities().values()
-                .stream()
-                .filter(e -> e.getEntityType() == EntityType.Avatar.getValue() && region.getMetaRegion().contains(e.getPosition()))
-                .forEach(region::addEntity);
+        // currently all condition_ENTER_REGION Events check for avatar, so we only look up the regions around each avatar
+        var regionIndex = this.getRegionIndex();
+        var players = getScene().getPlayers();
+        Map<Integer, Set<EntityRegion>> currentRegions = new HashMap<>();
+        for (var player : players) {
+            var avatar = player.getTeamManager().getCurrentAvatarEntity();
+            if (avatar == null || getScene().getEntityById(avatar.getId()) == null) {
+                continue;
+            }
+
+            var position = avatar.getPosition();
+            Set<EntityRegion> inside = new HashSet<>();
+            for (var region : SceneIndexManager.queryNeighbors(regionIndex, position.toDoubleArray(), 0)) {
+                if (region.getMetaRegion().contains(position)) {
+                    inside.add(region);
+                }
+            }
+            currentRegions.put(avatar.getId(), inside);
+        }
+
+        // Only regions an avatar entered or left since the last check need their events called
+        Set<EntityRegion> changedRegions = new LinkedHashSet<>();
+        currentRegions.forEach((entityId, inside) -> {
+            var previous = this.avatarRegions.getOrDefault(entityId, Set.of());
+            for (var region : inside) {
+                if (!previous.contains(region)) {
+                    region.addEntity(getScene().getEntityById(entityId));
+                    changedRegions.add(region);
+                }
+            }
+            for (var region : previous) {
+                if (!inside.contains(region)) {
+                    region.removeEntity(entityId);
+                    changedRegions.add(region);
+                }
+            }
+        });
+        this.avatarRegions.forEach((entityId, previous) -> {
+            if (!currentRegions.containsKey(entityId)) {
+                previous.forEach(region -> region.removeEntity(entityId));
+                changedRegions.addAll(previous);
+            }
+        });
+        this.avatarRegions = currentRegions;
 
-            var players = region.getScene().getPlayers();
-            int targetID = 0;
-            if (players.size() > 0)
-                targetID = players.get(0).getUid();
+        int targetID = 0;
+        if (players.size() > 0)
+            targetID = players.get(0).getUid();
+
+        for (var region : changedRegions) {
+            if (!this.regions.containsKey(region.getId())) {
+                continue; // Deregistered since the last check
+            }
 
             if (region.hasNewEntities()) {
                 Grasscutter.getLogger().trace("Call EVENT_ENTER_REGION_{}",region.getMetaRegion().config_id);
@@ -212,19 +277,13 @@ public class SceneScriptManager {
                 region.resetNewEntities();
             }
 
-            for (int entityId : region.getEntities()) {
-                if (getScene().getEntityById(entityId) == null || !region.getMetaRegion().contains(getScene().getEntityById(entityId).getPosition())) {
-                    region.removeEntity(entityId);
-
-                }
-            }
             if (region.entityLeave()) {
                 callEvent(EventType.EVENT_LEAVE_REGION, new ScriptArgs(region.getConfigId())
                     .setSourceEntityId(region.getId())
                     .setTargetEntityId(region.getFirstEntityId())
                 );
 
-                region.resetNewEntities();
+                region.resetEntityLeave();
             }
         }
     }
@@ -389,10 +448,9 @@ public class SceneScriptManager {
 
     public EntityGadget createGadget(int groupId, int blockId, SceneGadget g) {
         if (g.isOneoff) {
-            var hasEntity = getScene().getEntities().values().stream()
+            var hasEntity = getScene().getEntitiesByConfigId(g.config_id).stream()
                 .filter(e -> e instanceof EntityGadget)
                 .filter(e -> e.getGroupId() == g.group.id)
-                .filter(e -> e.getConfigId() == g.config_id)
                 .findFirst();
             if (hasEntity.isPresent()) {
                 return null;
@@ -475,9 +533,8 @@ public class SceneScriptManager {
         var configSet = suite.sceneMonsters.stream()
                 .map(m -> m.config_id)
                 .collect(Collectors.toSet());
-        var toRemove = getScene().getEntities().values().stream()
+        var toRemove = getScene().getEntitiesByGroupId(group.id).stream()
                 .filter(e -> e instanceof EntityMonster)
-                .filter(e -> e.getGroupId() == group.id)
                 .filter(e -> configSet.contains(e.getConfigId()))
                 .toList();
 
@@ -487,9 +544,8 @@ public class SceneScriptManager {
         var configSet = suite.sceneGadgets.stream()
                 .map(m -> m.config_id)
                 .collect(Collectors.toSet());
-        var toRemove = getScene().getEntities().values().stream()
+        var toRemove = getScene().getEntitiesByGroupId(group.id).stream()
                 .filter(e -> e instanceof EntityGadget)
-                .filter(e -> e.getGroupId() == group.id)
                 .filter(e -> configSet.contains(e.getConfigId()))
                 .toList();
 
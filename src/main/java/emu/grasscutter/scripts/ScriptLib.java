@@ -65,8 +65,7 @@ public class ScriptLib {
 	public int SetGadgetStateByConfigId(int configId, int gadgetState) {
 		logger.debug("[LUA] Call SetGadgetStateByConfigId with {},{}",
 				configId,gadgetState);
-		Optional<GameEntity> entity = getSceneScriptManager().getScene().getEntities().values().stream()
-				.filter(e -> e.getConfigId() == configId).findFirst();
+		Optional<GameEntity> entity = Optional.ofNullable(getSceneScriptManager().getScene().getEntityByConfigId(configId));
 
 		if (entity.isEmpty()) {
 			return 1;
@@ -84,8 +83,7 @@ public class ScriptLib {
 		logger.debug("[LUA] Call SetGroupGadgetStateByConfigId with {},{},{}",
 				groupId,configId,gadgetState);
 
-		getSceneScriptManager().getScene().getEntities().values().stream()
-				.filter(e -> e.getGroupId() == groupId)
+		getSceneScriptManager().getScene().getEntitiesByGroupId(groupId).stream()
 				.filter(e -> e instanceof EntityGadget)
 				.map(e -> (EntityGadget)e)
 				.forEach(e -> e.updateState(gadgetState));
@@ -97,8 +95,7 @@ public class ScriptLib {
 		logger.debug("[LUA] Call SetWorktopOptionsByGroupId with {},{},{}",
 				groupId,configId,options);
 		
-		Optional<GameEntity> entity = getSceneScriptManager().getScene().getEntities().values().stream()
-				.filter(e -> e.getConfigId() == configId && e.getGroupId() == groupId).findFirst();
+		Optional<GameEntity> entity = Optional.ofNullable(getSceneScriptManager().getScene().getEntityByConfigId(groupId, configId));
 
 
 		if (entity.isEmpty() || !(entity.get() instanceof EntityGadget gadget)) {
@@ -123,8 +120,7 @@ public class ScriptLib {
 	public int DelWorktopOptionByGroupId(int groupId, int configId, int option) {
 		logger.debug("[LUA] Call DelWorktopOptionByGroupId with {},{},{}",groupId,configId,option);
 
-		Optional<GameEntity> entity = getSceneScriptManager().getScene().getEntities().values().stream()
-				.filter(e -> e.getConfigId() == configId && e.getGroupId() == groupId).findFirst();
+		Optional<GameEntity> entity = Optional.ofNullable(getSceneScriptManager().getScene().getEntityByConfigId(groupId, configId));
 
 		if (entity.isEmpty() || !(entity.get() instanceof EntityGadget gadget)) {
 			return 1;
@@ -267,8 +263,8 @@ public class ScriptLib {
 	public int GetGroupMonsterCountByGroupId(int groupId) {
 		logger.debug("[LUA] Call GetGroupMonsterCountByGroupId with {}",
 				groupId);
-		return (int) getSceneScriptManager().getScene().getEntities().values().stream()
-								.filter(e -> e instanceof EntityMonster && e.getGroupId() == groupId)
+		return (int) getSceneScriptManager().getScene().getEntitiesByGroupId(groupId).stream()
+								.filter(e -> e instanceof EntityMonster)
 								.count();
 	}
 	
@@ -342,9 +338,8 @@ public class ScriptLib {
 	public int GetGroupMonsterCount(){
 		logger.debug("[LUA] Call GetGroupMonsterCount ");
 
-		return (int) getSceneScriptManager().getScene().getEntities().values().stream()
-				.filter(e -> e instanceof EntityMonster &&
-						e.getGroupId() == getCurrentGroup().map(sceneGroup -> sceneGroup.id).orElse(-1))
+		return (int) getSceneScriptManager().getScene().getEntitiesByGroupId(getCurrentGroup().map(sceneGroup -> sceneGroup.id).orElse(-1)).stream()
+				.filter(e -> e instanceof EntityMonster)
 				.count();
 	}
 	public int SetMonsterBattleByGroup(int var1, int var2, int var3){
@@ -447,8 +442,8 @@ public class ScriptLib {
 				printTable(table));
 		var groupId = table.get("group_id").toint();
 
-		var count = getSceneScriptManager().getScene().getEntities().values().stream()
-				.filter(g -> g instanceof EntityGadget entityGadget && entityGadget.getGroupId() == groupId)
+		var count = getSceneScriptManager().getScene().getEntitiesByGroupId(groupId).stream()
+				.filter(g -> g instanceof EntityGadget)
 				.count();
 		return (int)count;
 	}
@@ -461,9 +456,8 @@ public class ScriptLib {
 			groupId = getCurrentGroup().get().id;
 		}
 		final int realGroupId = groupId;
-		var gadget = getSceneScriptManager().getScene().getEntities().values().stream()
+		var gadget = getSceneScriptManager().getScene().getEntitiesByConfigId(configId).stream()
 				.filter(g -> g instanceof EntityGadget entityGadget && entityGadget.getGroupId() == realGroupId)
-				.filter(g -> g.getConfigId() == configId)
 				.findFirst();
 		if(gadget.isEmpty()){
 			return 1;
@@ -540,10 +534,9 @@ public class ScriptLib {
     public int RemoveEntityByConfigId(int groupId, int entityType, int configId){
         logger.debug("[LUA] Call RemoveEntityByConfigId");
 
-        var entity = getSceneScriptManager().getScene().getEntities().values().stream()
+        var entity = getSceneScriptManager().getScene().getEntitiesByConfigId(configId).stream()
             .filter(e -> e.getGroupId() == groupId)
             .filter(e -> e.getEntityType() == entityType)
-            .filter(e -> e.getConfigId() == configId)
             .findFirst();
 
         if(entity.isEmpty()){
@@ -1,5 +1,6 @@
 package emu.grasscutter.scripts.data;
 
+import com.github.davidmoten.rtreemulti.geometry.Rectangle;
 import emu.grasscutter.scripts.constants.ScriptRegionShape;
 import emu.grasscutter.utils.Position;
 import lombok.Setter;
@@ -32,4 +33,22 @@ public class SceneRegion {
         return false;
     }
 
+    /**
+     * The bounding box of the region for the spatial index.
+     */
+    public Rectangle toRectangle() {
+        double[] extents = switch (shape) {
+            case ScriptRegionShape.CUBIC -> new double[]{size.getX(), size.getY(), size.getZ()};
+            case ScriptRegionShape.SPHERE -> new double[]{radius, radius, radius};
+            default -> new double[]{0, 0, 0};
+        };
+        double[] min = pos.toDoubleArray();
+        double[] max = pos.toDoubleArray();
+        for (int i = 0; i < extents.length; i++) {
+            min[i] -= extents[i];
+            max[i] += extents[i];
+        }
+        return Rectangle.create(min, max);
+    }
+
 }
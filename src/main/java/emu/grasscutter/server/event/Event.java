@@ -29,4 +29,12 @@ public abstract class Event {
     public void call() {
         Grasscutter.getPluginManager().invokeEvent(this);
     }
+
+    /**
+     * Checks if there are any listeners for the event class.
+     * Hot paths use this to avoid creating events nobody listens to.
+     */
+    public static boolean hasListeners(Class<? extends Event> eventClass) {
+        return Grasscutter.getPluginManager().hasListeners(eventClass);
+    }
 }
@@ -3,10 +3,14 @@ package emu.grasscutter.server.event.game;
 import emu.grasscutter.server.event.Cancellable;
 import emu.grasscutter.server.event.types.ServerEvent;
 import emu.grasscutter.server.game.GameSession;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
 
 public final class ReceivePacketEvent extends ServerEvent implements Cancellable {
     private final GameSession gameSession;
     private final int packetId;
+    private final ByteBuf packetBuffer;
     private byte[] packetData;
     
     public ReceivePacketEvent(GameSession gameSession, int packetId, byte[] packetData) {
@@ -14,8 +18,17 @@ public final class ReceivePacketEvent extends ServerEvent implements Cancellable
         
         this.gameSession = gameSession;
         this.packetId = packetId;
+        this.packetBuffer = null;
         this.packetData = packetData;
     }
+
+    public ReceivePacketEvent(GameSession gameSession, int packetId, ByteBuf packetBuffer) {
+        super(Type.GAME);
+
+        this.gameSession = gameSession;
+        this.packetId = packetId;
+        this.packetBuffer = packetBuffer;
+    }
     
     public GameSession getGameSession() {
         return this.gameSession;
@@ -30,6 +43,20 @@ public final class ReceivePacketEvent extends ServerEvent implements Cancellable
     }
     
     public byte[] getPacketData() {
+        // Only copy the receive buffer if a listener actually asks for the data.
+        if (this.packetData == null && this.packetBuffer != null) {
+            this.packetData = ByteBufUtil.getBytes(this.packetBuffer);
+        }
         return this.packetData;
     }
+
+    /**
+     * @return The original receive buffer, or the packet data if a listener has touched it.
+     */
+    public ByteBuf getPacketBuffer() {
+        if (this.packetData != null) {
+            return Unpooled.wrappedBuffer(this.packetData);
+        }
+        return this.packetBuffer;
+    }
 }
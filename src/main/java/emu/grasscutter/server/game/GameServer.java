@@ -3,6 +3,7 @@ package emu.grasscutter.server.game;
 import emu.grasscutter.GameConstants;
 import emu.grasscutter.Grasscutter;
 import emu.grasscutter.database.DatabaseHelper;
+import emu.grasscutter.database.DatabaseManager;
 import emu.grasscutter.game.Account;
 import emu.grasscutter.game.battlepass.BattlePassSystem;
 import emu.grasscutter.game.chat.ChatSystem;
@@ -17,6 +18,9 @@ import emu.grasscutter.game.managers.cooking.CookingCompoundManager;
 import emu.grasscutter.game.managers.cooking.CookingManager;
 import emu.grasscutter.game.managers.energy.EnergyManager;
 import emu.grasscutter.game.managers.stamina.StaminaManager;
+import emu.grasscutter.game.mail.MailSystem;
+import emu.grasscutter.game.player.LoginDataLoader;
+import emu.grasscutter.game.player.OfflineProfileCache;
 import emu.grasscutter.game.player.Player;
 import emu.grasscutter.game.quest.QuestSystem;
 import emu.grasscutter.game.shop.ShopSystem;
@@ -43,6 +47,7 @@ import java.time.Instant;
 import java.time.OffsetDateTime;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 import static emu.grasscutter.config.Configuration.*;
 import static emu.grasscutter.utils.Language.translate;
@@ -69,10 +74,14 @@ public final class GameServer extends KcpServer {
     private final TowerSystem towerSystem;
     private final AnnouncementSystem announcementSystem;
     private final QuestSystem questSystem;
+    private final MailSystem mailSystem;
 
     // Extra
     private final ServerTaskScheduler scheduler;
     private final TaskMap taskMap;
+    private final LoginDataLoader loginDataLoader;
+    private final OfflineProfileCache offlineProfiles;
+    private final TickEngine tickEngine;
 
     private ChatSystemHandler chatManager;
 
@@ -108,6 +117,9 @@ public final class GameServer extends KcpServer {
         // Extra
         this.scheduler = new ServerTaskScheduler();
         this.taskMap = new TaskMap(true);
+        this.loginDataLoader = new LoginDataLoader();
+        this.offlineProfiles = new OfflineProfileCache();
+        this.tickEngine = new TickEngine(this);
 
         // Create game systems
         this.inventorySystem = new InventorySystem(this);
@@ -123,6 +135,7 @@ public final class GameServer extends KcpServer {
         this.battlePassSystem = new BattlePassSystem(this);
         this.announcementSystem = new AnnouncementSystem(this);
         this.questSystem = new QuestSystem(this);
+        this.mailSystem = new MailSystem(this);
 
         // Chata manager
         this.chatManager = new ChatSystem(this);
@@ -198,13 +211,16 @@ public final class GameServer extends KcpServer {
 
     public SocialDetail.Builder getSocialDetailByUid(int id) {
         // Get from online players
-        Player player = this.getPlayerByUid(id, true);
+        Player player = this.getPlayerByUid(id);
+        if (player != null) {
+            return player.getSocialDetail();
+        }
 
-        if (player == null) {
+        if (id == GameConstants.SERVER_CONSOLE_UID) {
             return null;
         }
-
-        return player.getSocialDetail();
+        OfflineProfileCache.Profile profile = this.getOfflineProfiles().get(id);
+        return profile == null ? null : profile.socialDetail().toBuilder();
     }
 
     public Account getAccountByName(String username) {
@@ -215,15 +231,13 @@ public final class GameServer extends KcpServer {
         return DatabaseHelper.getAccountByName(username);
     }
 
+    /**
+     * Runs the server-wide part of a tick, once a second.
+     * Worlds and players are ticked by the {@link TickEngine}, at their own rates.
+     */
     public synchronized void onTick() {
         var tickStart = Instant.now();
 
-        // Tick worlds.
-        this.worlds.removeIf(World::onTick);
-
-        // Tick players.
-        this.players.values().forEach(Player::onTick);
-
         // Tick scheduler.
         this.getScheduler().runTasks();
 
@@ -243,17 +257,7 @@ public final class GameServer extends KcpServer {
 
     public void start() {
         // Schedule game loop.
-        Timer gameLoop = new Timer();
-        gameLoop.scheduleAtFixedRate(new TimerTask() {
-            @Override
-            public void run() {
-                try {
-                    onTick();
-                } catch (Exception e) {
-                    Grasscutter.getLogger().error(translate("messages.game.game_update_error"), e);
-                }
-            }
-        }, new Date(), 1000L);
+        this.tickEngine.start();
         Grasscutter.getLogger().info(translate("messages.status.free_software"));
         Grasscutter.getLogger().info(translate("messages.game.address_bind", GAME_INFO.accessAddress, address.getPort()));
         ServerStartEvent event = new ServerStartEvent(ServerEvent.Type.GAME, OffsetDateTime.now());
@@ -262,6 +266,7 @@ public final class GameServer extends KcpServer {
 
     public void onServerShutdown() {
         ServerStopEvent event = new ServerStopEvent(ServerEvent.Type.GAME, OffsetDateTime.now()); event.call();
+        this.tickEngine.stop();
 
         // Kick and save all players
         List<Player> list = new ArrayList<>(this.getPlayers().size());
@@ -270,5 +275,9 @@ public final class GameServer extends KcpServer {
         for (Player player : list) {
             player.getSession().close();
         }
+
+        // Give the logic shards a moment to run the logouts, then write out everything still queued.
+        GameSessionManager.getLogicExecutors().awaitPendingTasks(5, TimeUnit.SECONDS);
+        DatabaseManager.getStorage().shutdown();
     }
 }
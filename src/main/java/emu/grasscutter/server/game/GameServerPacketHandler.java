@@ -5,6 +5,7 @@ import static emu.grasscutter.config.Configuration.*;
 import java.util.Set;
 
 import emu.grasscutter.game.Account;
+import emu.grasscutter.server.event.Event;
 import emu.grasscutter.server.event.game.ReceivePacketEvent;
 import org.reflections.Reflections;
 
@@ -14,6 +15,8 @@ import emu.grasscutter.net.packet.Opcodes;
 import emu.grasscutter.net.packet.PacketHandler;
 import emu.grasscutter.net.packet.PacketOpcodes;
 import emu.grasscutter.server.game.GameSession.SessionState;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
 import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
 
@@ -56,6 +59,10 @@ public class GameServerPacketHandler {
     }
 
     public void handle(GameSession session, int opcode, byte[] header, byte[] payload) {
+        this.handle(session, opcode, Unpooled.wrappedBuffer(header), Unpooled.wrappedBuffer(payload));
+    }
+
+    public void handle(GameSession session, int opcode, ByteBuf header, ByteBuf payload) {
         PacketHandler handler = this.handlers.get(opcode);
 
         if (handler != null) {
@@ -87,10 +94,15 @@ public class GameServerPacketHandler {
                 }
 
                 // Invoke event.
-                ReceivePacketEvent event = new ReceivePacketEvent(session, opcode, payload);
-                event.call();
-                if (!event.isCanceled()) // If event is not canceled, continue.
-                    handler.handle(session, header, event.getPacketData());
+                if (Event.hasListeners(ReceivePacketEvent.class)) {
+                    ReceivePacketEvent event = new ReceivePacketEvent(session, opcode, payload);
+                    event.call();
+                    if (event.isCanceled()) // If event is canceled, don't handle the packet.
+                        return;
+                    payload = event.getPacketBuffer();
+                }
+
+                handler.handle(session, header, payload);
             } catch (Exception ex) {
                 // TODO Remove this when no more needed
                 ex.printStackTrace();
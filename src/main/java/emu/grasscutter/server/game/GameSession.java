@@ -11,12 +11,14 @@ import emu.grasscutter.game.player.Player;
 import emu.grasscutter.net.packet.BasePacket;
 import emu.grasscutter.net.packet.PacketOpcodes;
 import emu.grasscutter.net.packet.PacketOpcodesUtils;
+import emu.grasscutter.server.event.Event;
 import emu.grasscutter.server.event.game.SendPacketEvent;
 import emu.grasscutter.utils.Crypto;
 import emu.grasscutter.utils.FileUtils;
 import emu.grasscutter.utils.Utils;
 import io.netty.buffer.ByteBuf;
-import io.netty.buffer.Unpooled;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.PooledByteBufAllocator;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -25,6 +27,7 @@ import static emu.grasscutter.utils.Language.translate;
 
 public class GameSession implements GameSessionManager.KcpChannel {
     private final GameServer server;
+    @Getter private final SessionExecutor logicExecutor;
     private GameSessionManager.KcpTunnel tunnel;
 
     @Getter @Setter private Account account;
@@ -37,8 +40,9 @@ public class GameSession implements GameSessionManager.KcpChannel {
     @Getter private long lastPingTime;
     private int lastClientSeq = 10;
 
-    public GameSession(GameServer server) {
+    public GameSession(GameServer server, SessionExecutor logicExecutor) {
         this.server = server;
+        this.logicExecutor = logicExecutor;
         this.state = SessionState.WAITING_FOR_TOKEN;
         this.lastPingTime = System.currentTimeMillis();
     }
@@ -102,6 +106,12 @@ public class GameSession implements GameSessionManager.KcpChannel {
             System.out.println(Utils.bytesToHex(payload));
     }
 
+    public void logPacket(String sendOrRecv, int opcode, ByteBuf payload) {
+        Grasscutter.getLogger().info(sendOrRecv + ": " + PacketOpcodesUtils.getOpcodeName(opcode) + " (" + opcode + ")");
+        if (GAME_INFO.isShowPacketPayload)
+            System.out.println(Utils.bytesToHex(ByteBufUtil.getBytes(payload)));
+    }
+
     public void send(BasePacket packet) {
         // Test
         if (packet.getOpcode() <= 0) {
@@ -142,11 +152,16 @@ public class GameSession implements GameSessionManager.KcpChannel {
         }
 
         // Invoke event.
-        SendPacketEvent event = new SendPacketEvent(this, packet);
-        event.call();
-        if (!event.isCanceled()) { // If event is not cancelled, continue.
-            tunnel.writeData(event.getPacket().build());
+        if (Event.hasListeners(SendPacketEvent.class)) {
+            SendPacketEvent event = new SendPacketEvent(this, packet);
+            event.call();
+            if (event.isCanceled()) { // If event is cancelled, don't send the packet.
+                return;
+            }
+            packet = event.getPacket();
         }
+
+        tunnel.writeData(packet.encode(PooledByteBufAllocator.DEFAULT));
     }
 
     @Override
@@ -156,13 +171,10 @@ public class GameSession implements GameSessionManager.KcpChannel {
     }
 
     @Override
-    public void handleReceive(byte[] bytes) {
-        // Decrypt and turn back into a packet
-        Crypto.xor(bytes, useSecretKey() ? Crypto.ENCRYPT_KEY : Crypto.DISPATCH_KEY);
-        ByteBuf packet = Unpooled.wrappedBuffer(bytes);
+    public void handleReceive(ByteBuf packet) {
+        // Decrypt in place, the buffer is owned by the caller and released after this returns
+        Crypto.xor(packet, useSecretKey() ? Crypto.ENCRYPT_KEY : Crypto.DISPATCH_KEY);
 
-        // Log
-        //logPacket(packet);
         // Handle
         try {
             boolean allDebug = GAME_INFO.logPackets == ServerDebugMode.ALL;
@@ -183,11 +195,9 @@ public class GameSession implements GameSessionManager.KcpChannel {
                 int opcode = packet.readShort();
                 int headerLength = packet.readShort();
                 int payloadLength = packet.readInt();
-                byte[] header = new byte[headerLength];
-                byte[] payload = new byte[payloadLength];
-
-                packet.readBytes(header);
-                packet.readBytes(payload);
+                // Slices share the decrypted buffer, nothing is copied here
+                ByteBuf header = packet.readSlice(headerLength);
+                ByteBuf payload = packet.readSlice(payloadLength);
                 // Sanity check #2
                 int const2 = packet.readShort();
                 if (const2 != -30293) {
@@ -223,9 +233,6 @@ public class GameSession implements GameSessionManager.KcpChannel {
             }
         } catch (Exception e) {
             e.printStackTrace();
-        } finally {
-            //byteBuf.release(); //Needn't
-            packet.release();
         }
     }
 
@@ -4,16 +4,15 @@ import java.net.InetSocketAddress;
 import java.util.concurrent.ConcurrentHashMap;
 
 import emu.grasscutter.Grasscutter;
-import emu.grasscutter.utils.Crypto;
-import emu.grasscutter.utils.Utils;
 import io.netty.buffer.ByteBuf;
-import io.netty.buffer.Unpooled;
-import io.netty.channel.DefaultEventLoop;
+import io.netty.buffer.PooledByteBufAllocator;
 import kcp.highway.KcpListener;
 import kcp.highway.Ukcp;
 
+import static emu.grasscutter.config.Configuration.GAME_INFO;
+
 public class GameSessionManager {
-    private static final DefaultEventLoop logicThread = new DefaultEventLoop();
+    private static final LogicExecutorGroup logicExecutors = new LogicExecutorGroup(GAME_INFO.logicThreads);
     private static final ConcurrentHashMap<Ukcp,GameSession> sessions = new ConcurrentHashMap<>();
     private static final KcpListener listener = new KcpListener(){
         @Override
@@ -35,7 +34,7 @@ public class GameSessionManager {
                 }
                 server = Grasscutter.getGameServer();
             }
-            GameSession conversation = new GameSession(server);
+            GameSession conversation = new GameSession(server, logicExecutors.newSessionExecutor(ukcp.getConv()));
             conversation.onConnected(new KcpTunnel(){
                 @Override
                 public InetSocketAddress getAddress() {
@@ -43,8 +42,8 @@ public class GameSessionManager {
                 }
 
                 @Override
-                public void writeData(byte[] bytes) {
-                    ByteBuf buf = Unpooled.wrappedBuffer(bytes);
+                public void writeData(ByteBuf buf) {
+                    // Ukcp.write keeps its own reference to the buffer
                     ukcp.write(buf);
                     buf.release();
                 }
@@ -64,15 +63,22 @@ public class GameSessionManager {
 
         @Override
         public void handleReceive(ByteBuf buf, Ukcp kcp) {
-            byte[] byteData = Utils.byteBufToArray(buf);
-            logicThread.execute(() -> {
+            // KCP releases its buffer after this call, so move the frame into a pooled buffer
+            // which is decrypted in place and sliced by the session without further copies.
+            GameSession conversation = sessions.get(kcp);
+            if(conversation==null) {
+                return;
+            }
+            ByteBuf frame = PooledByteBufAllocator.DEFAULT.directBuffer(buf.readableBytes());
+            frame.writeBytes(buf, buf.readerIndex(), buf.readableBytes());
+            // Packets run on the session's executor, which follows the session into its world's shard.
+            conversation.getLogicExecutor().execute(() -> {
                 try {
-                    GameSession conversation = sessions.get(kcp);
-                    if(conversation!=null) {
-                        conversation.handleReceive(byteData);
-                    }
+                    conversation.handleReceive(frame);
                 }catch (Exception e){
                     e.printStackTrace();
+                }finally {
+                    frame.release();
                 }
             });
         }
@@ -86,8 +92,16 @@ public class GameSessionManager {
         public void handleClose(Ukcp ukcp) {
             GameSession conversation = sessions.get(ukcp);
             if(conversation!=null) {
-                conversation.handleClose();
-                sessions.remove(ukcp);
+                // Close on the session's own executor, after any packets still queued.
+                conversation.getLogicExecutor().execute(() -> {
+                    try {
+                        conversation.handleClose();
+                    }catch (Exception e){
+                        e.printStackTrace();
+                    }finally {
+                        sessions.remove(ukcp);
+                    }
+                });
             }
         }
     };
@@ -96,15 +110,19 @@ public class GameSessionManager {
         return listener;
     }
 
+    public static LogicExecutorGroup getLogicExecutors() {
+        return logicExecutors;
+    }
+
     interface KcpTunnel{
         InetSocketAddress getAddress();
-        void writeData(byte[] bytes);
+        void writeData(ByteBuf buf);
         void close();
         int getSrtt();
     }
     interface KcpChannel{
         void onConnected(KcpTunnel tunnel);
         void handleClose();
-        void handleReceive(byte[] bytes);
+        void handleReceive(ByteBuf buf);
     }
 }
@@ -0,0 +1,163 @@
+package emu.grasscutter.server.game;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import emu.grasscutter.Grasscutter;
+import io.netty.channel.DefaultEventLoop;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import io.netty.util.concurrent.Future;
+
+/**
+ * A fixed group of single-threaded event loops which run game logic.
+ * Every session is pinned to one shard by its KCP conversation id,
+ * so packets of the same session are always handled in order,
+ * while different sessions are spread across all shards.
+ */
+public final class LogicExecutorGroup {
+    private static final long REPORT_INTERVAL_SECONDS = 60;
+
+    private final DefaultEventLoop[] shards;
+
+    /* Metrics, indexed by shard. */
+    private final AtomicIntegerArray peakQueueDepth;
+    private final AtomicLongArray executedTasks;
+
+    public LogicExecutorGroup(int shardCount) {
+        if (shardCount <= 0) {
+            shardCount = Runtime.getRuntime().availableProcessors();
+        }
+
+        this.shards = new DefaultEventLoop[shardCount];
+        this.peakQueueDepth = new AtomicIntegerArray(shardCount);
+        this.executedTasks = new AtomicLongArray(shardCount);
+
+        DefaultThreadFactory threadFactory = new DefaultThreadFactory("GameLogic");
+        for (int i = 0; i < shardCount; i++) {
+            this.shards[i] = new DefaultEventLoop(threadFactory);
+        }
+
+        // Periodically report the queue depth of every shard.
+        this.shards[0].scheduleAtFixedRate(this::reportMetrics,
+            REPORT_INTERVAL_SECONDS, REPORT_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    public int getShardCount() {
+        return this.shards.length;
+    }
+
+    /**
+     * Gets the index of the shard the given conversation is pinned to.
+     * @param conv The KCP conversation id.
+     * @return The shard index.
+     */
+    public int getShardIndex(long conv) {
+        return (int) Long.remainderUnsigned(conv, this.shards.length);
+    }
+
+    public DefaultEventLoop getShard(int index) {
+        return this.shards[index];
+    }
+
+    /**
+     * Creates the executor of a new session, starting out on the shard of its conversation.
+     * @param conv The KCP conversation id.
+     */
+    public SessionExecutor newSessionExecutor(long conv) {
+        return new SessionExecutor(this, this.getShardIndex(conv));
+    }
+
+    /**
+     * Runs a task on the shard the given conversation is pinned to.
+     * @param conv The KCP conversation id.
+     * @param task The task to run.
+     */
+    public void execute(long conv, Runnable task) {
+        this.executeOnShard(this.getShardIndex(conv), task);
+    }
+
+    /**
+     * Runs a task on the given shard.
+     * @param index The shard index.
+     * @param task The task to run.
+     */
+    public void executeOnShard(int index, Runnable task) {
+        DefaultEventLoop shard = this.shards[index];
+
+        shard.execute(() -> {
+            try {
+                task.run();
+            } finally {
+                this.executedTasks.incrementAndGet(index);
+            }
+        });
+
+        // Track the deepest queue seen since the last report.
+        int depth = shard.pendingTasks();
+        if (depth > this.peakQueueDepth.get(index)) {
+            this.peakQueueDepth.accumulateAndGet(index, depth, Math::max);
+        }
+    }
+
+    /**
+     * Waits until every task queued so far on each shard has run.
+     * @param timeout The maximum time to wait for all shards.
+     * @param unit The unit of the timeout.
+     */
+    public void awaitPendingTasks(long timeout, TimeUnit unit) {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        Future<?>[] barriers = new Future<?>[this.shards.length];
+        for (int i = 0; i < barriers.length; i++) {
+            barriers[i] = this.shards[i].submit(() -> { });
+        }
+        for (Future<?> barrier : barriers) {
+            barrier.awaitUninterruptibly(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * @return The number of tasks currently waiting on each shard.
+     */
+    public int[] getQueueDepths() {
+        int[] depths = new int[this.shards.length];
+        for (int i = 0; i < depths.length; i++) {
+            depths[i] = this.shards[i].pendingTasks();
+        }
+        return depths;
+    }
+
+    /**
+     * @return The deepest queue seen on each shard since the last report.
+     */
+    public int[] getPeakQueueDepths() {
+        int[] depths = new int[this.shards.length];
+        for (int i = 0; i < depths.length; i++) {
+            depths[i] = this.peakQueueDepth.get(i);
+        }
+        return depths;
+    }
+
+    /**
+     * @return The total number of tasks each shard has run.
+     */
+    public long[] getExecutedTasks() {
+        long[] executed = new long[this.shards.length];
+        for (int i = 0; i < executed.length; i++) {
+            executed[i] = this.executedTasks.get(i);
+        }
+        return executed;
+    }
+
+    private void reportMetrics() {
+        StringBuilder report = new StringBuilder();
+        for (int i = 0; i < this.shards.length; i++) {
+            report.append(" #").append(i)
+                .append("[queued=").append(this.shards[i].pendingTasks())
+                .append(", peak=").append(this.peakQueueDepth.getAndSet(i, 0))
+                .append(", executed=").append(this.executedTasks.get(i))
+                .append(']');
+        }
+        Grasscutter.getLogger().debug("Logic shards:{}", report);
+    }
+}
@@ -0,0 +1,113 @@
+package emu.grasscutter.server.game;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import emu.grasscutter.Grasscutter;
+import io.netty.util.HashedWheelTimer;
+import io.netty.util.Timeout;
+import io.netty.util.TimerTask;
+import io.netty.util.concurrent.DefaultThreadFactory;
+
+/**
+ * A single hashed-wheel timer shared by every player.
+ * The wheel thread only keeps time; each task is handed to the executor
+ * it was scheduled with (usually the owning session's logic executor),
+ * so periodic player work runs on the same thread as its packets.
+ */
+public final class LogicTimer {
+    private static final HashedWheelTimer wheel = new HashedWheelTimer(
+        new DefaultThreadFactory("LogicTimer", true), 10, TimeUnit.MILLISECONDS);
+
+    private LogicTimer() { }
+
+    /**
+     * Runs a task once after the given delay.
+     * @param executor The executor to run the task on.
+     * @param task The task to run.
+     * @param delay The delay.
+     * @param unit The unit of the delay.
+     * @return A handle which can cancel the task.
+     */
+    public static Timeout schedule(Executor executor, Runnable task, long delay, TimeUnit unit) {
+        return wheel.newTimeout(timeout -> executor.execute(() -> {
+            if (!timeout.isCancelled()) {
+                task.run();
+            }
+        }), delay, unit);
+    }
+
+    /**
+     * Runs a task repeatedly at a fixed rate until it is cancelled.
+     * @param executor The executor to run the task on.
+     * @param task The task to run.
+     * @param initialDelay The delay before the first run.
+     * @param period The time between two runs.
+     * @param unit The unit of both delays.
+     * @return A handle which can cancel the task.
+     */
+    public static RepeatingTask scheduleAtFixedRate(Executor executor, Runnable task, long initialDelay, long period, TimeUnit unit) {
+        RepeatingTask repeating = new RepeatingTask(executor, task, unit.toNanos(period));
+        repeating.start(unit.toNanos(initialDelay));
+        return repeating;
+    }
+
+    public static final class RepeatingTask implements TimerTask {
+        private final Executor executor;
+        private final Runnable task;
+        private final long periodNanos;
+
+        private long nextRun;
+        private volatile Timeout timeout;
+        private volatile boolean cancelled = false;
+
+        private RepeatingTask(Executor executor, Runnable task, long periodNanos) {
+            this.executor = executor;
+            this.task = task;
+            this.periodNanos = periodNanos;
+        }
+
+        private void start(long initialDelayNanos) {
+            this.nextRun = System.nanoTime() + initialDelayNanos;
+            this.timeout = wheel.newTimeout(this, initialDelayNanos, TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public void run(Timeout timeout) {
+            if (this.cancelled) {
+                return;
+            }
+
+            // Re-arm first, relative to the planned run time so the rate does not drift.
+            this.nextRun += this.periodNanos;
+            long delay = Math.max(0, this.nextRun - System.nanoTime());
+            this.timeout = wheel.newTimeout(this, delay, TimeUnit.NANOSECONDS);
+
+            this.executor.execute(this::runTask);
+        }
+
+        private void runTask() {
+            if (this.cancelled) {
+                return;
+            }
+
+            try {
+                this.task.run();
+            } catch (Exception e) {
+                Grasscutter.getLogger().error("Error running scheduled player task.", e);
+            }
+        }
+
+        public boolean isCancelled() {
+            return this.cancelled;
+        }
+
+        public void cancel() {
+            this.cancelled = true;
+            Timeout timeout = this.timeout;
+            if (timeout != null) {
+                timeout.cancel();
+            }
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package emu.grasscutter.server.game;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import emu.grasscutter.Grasscutter;
+
+/**
+ * Runs the tasks of one session in order and one at a time, on the logic shard the session is bound to.
+ * A session starts out on the shard of its KCP conversation, its home shard, and is moved to its world's shard when it joins a world,
+ * so that the packets of everyone in a world and the world's own tick all run on the same thread.
+ * Moving takes effect between two tasks; whatever is still queued runs on the new shard, in the same order.
+ */
+public final class SessionExecutor implements Executor {
+    /* How many tasks run in one go before other work on the shard gets a turn. */
+    private static final int BATCH_SIZE = 64;
+
+    private final LogicExecutorGroup group;
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean(false);
+    /* The shard of the session's KCP conversation, which its own worlds run on. */
+    private final int homeShardIndex;
+    private volatile int shardIndex;
+
+    SessionExecutor(LogicExecutorGroup group, int shardIndex) {
+        this.group = group;
+        this.homeShardIndex = shardIndex;
+        this.shardIndex = shardIndex;
+    }
+
+    public int getHomeShardIndex() {
+        return this.homeShardIndex;
+    }
+
+    public int getShardIndex() {
+        return this.shardIndex;
+    }
+
+    /**
+     * Moves the session to another shard.
+     * @param shardIndex The index of the shard, usually that of the session's world.
+     */
+    public void bind(int shardIndex) {
+        this.shardIndex = shardIndex;
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        this.tasks.add(task);
+        this.schedule();
+    }
+
+    private void schedule() {
+        if (this.scheduled.compareAndSet(false, true)) {
+            this.group.executeOnShard(this.shardIndex, this::drain);
+        }
+    }
+
+    private void drain() {
+        int shard = this.shardIndex;
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            if (this.shardIndex != shard) {
+                break;  // Moved, carry on over there.
+            }
+            Runnable task = this.tasks.poll();
+            if (task == null) {
+                break;
+            }
+            try {
+                task.run();
+            } catch (Throwable e) {
+                Grasscutter.getLogger().error("Error running session task.", e);
+            }
+        }
+
+        this.scheduled.set(false);
+        if (!this.tasks.isEmpty()) {
+            this.schedule();
+        }
+    }
+}
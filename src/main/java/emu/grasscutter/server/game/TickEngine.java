@@ -0,0 +1,218 @@
+package emu.grasscutter.server.game;
+
+import static emu.grasscutter.config.Configuration.GAME_INFO;
+import static emu.grasscutter.utils.Language.translate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import emu.grasscutter.Grasscutter;
+import emu.grasscutter.game.player.Player;
+import emu.grasscutter.game.world.World;
+import io.netty.channel.DefaultEventLoop;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import lombok.Getter;
+
+/**
+ * Drives the game loop.
+ * Each world ticks as its own task on its logic shard, and each player on its session's executor,
+ * which runs on the shard of the player's world; so a world, its players' ticks and their packets all share one thread,
+ * while different worlds tick in parallel and a slow one only holds up itself.
+ * Every tick has to start before the next one is due; a tick which is still queued or running by then is skipped
+ * and counted as an overrun, instead of piling up.
+ */
+public final class TickEngine {
+    private static final long REPORT_INTERVAL_SECONDS = 60;
+    /* Server ticks are one second, see ServerTaskScheduler. */
+    private static final long SERVER_TICK_INTERVAL = 1000;
+
+    private final GameServer server;
+    /* Only schedules ticks and runs the server-wide one, the world and player ticks run elsewhere. */
+    private final DefaultEventLoop tickLoop;
+
+    private final Set<World> tickingWorlds = ConcurrentHashMap.newKeySet();
+    private final Set<Player> tickingPlayers = ConcurrentHashMap.newKeySet();
+
+    @Getter private final TickStats serverStats = new TickStats("server", SERVER_TICK_INTERVAL);
+    @Getter private final TickStats worldStats = new TickStats("worlds", GAME_INFO.worldTickInterval);
+    @Getter private final TickStats playerStats = new TickStats("players", GAME_INFO.playerTickInterval);
+
+    public TickEngine(GameServer server) {
+        this.server = server;
+        this.tickLoop = new DefaultEventLoop(new DefaultThreadFactory("GameTick"));
+    }
+
+    public void start() {
+        this.schedule(this.serverStats, this::tickServer);
+        this.schedule(this.worldStats, this::tickWorlds);
+        this.schedule(this.playerStats, this::tickPlayers);
+        this.tickLoop.scheduleAtFixedRate(this::reportStats,
+            REPORT_INTERVAL_SECONDS, REPORT_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    public void stop() {
+        this.tickLoop.shutdownGracefully(0, 1, TimeUnit.SECONDS);
+    }
+
+    /**
+     * @return The statistics of every kind of tick.
+     */
+    public List<TickStats> getStats() {
+        return List.of(this.serverStats, this.worldStats, this.playerStats);
+    }
+
+    private void schedule(TickStats stats, Runnable tick) {
+        this.tickLoop.scheduleAtFixedRate(() -> {
+            try {
+                tick.run();
+            } catch (Exception e) {
+                Grasscutter.getLogger().error(translate("messages.game.game_update_error"), e);
+            }
+        }, 0, stats.getIntervalNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    private void tickServer() {
+        long start = System.nanoTime();
+        this.server.onTick();
+        this.serverStats.record(System.nanoTime() - start);
+    }
+
+    private void tickWorlds() {
+        List<World> worlds;
+        synchronized (this.server.getWorlds()) {
+            worlds = new ArrayList<>(this.server.getWorlds());
+        }
+
+        long deadline = System.nanoTime() + this.worldStats.getIntervalNanos();
+        for (World world : worlds) {
+            if (!this.tickingWorlds.add(world)) {
+                this.worldStats.skip();  // Its last tick has not finished yet.
+                continue;
+            }
+            GameSessionManager.getLogicExecutors().executeOnShard(world.getLogicShard(), () -> this.runWorldTick(world, deadline));
+        }
+    }
+
+    private void runWorldTick(World world, long deadline) {
+        try {
+            long start = System.nanoTime();
+            if (start > deadline) {
+                this.worldStats.skip();  // Waited in the queue until the next tick was due.
+                return;
+            }
+            if (world.onTick()) {
+                this.server.getWorlds().remove(world);
+            }
+            this.worldStats.record(System.nanoTime() - start);
+        } catch (Exception e) {
+            Grasscutter.getLogger().error(translate("messages.game.game_update_error"), e);
+        } finally {
+            this.tickingWorlds.remove(world);
+        }
+    }
+
+    private void tickPlayers() {
+        long deadline = System.nanoTime() + this.playerStats.getIntervalNanos();
+        for (Player player : this.server.getPlayers().values()) {
+            GameSession session = player.getSession();
+            if (session == null) {
+                continue;
+            }
+            if (!this.tickingPlayers.add(player)) {
+                this.playerStats.skip();  // Its last tick has not finished yet.
+                continue;
+            }
+            session.getLogicExecutor().execute(() -> this.runPlayerTick(player, deadline));
+        }
+    }
+
+    private void runPlayerTick(Player player, long deadline) {
+        try {
+            long start = System.nanoTime();
+            if (start > deadline) {
+                this.playerStats.skip();
+                return;
+            }
+            player.onTick();
+            this.playerStats.record(System.nanoTime() - start);
+        } catch (Exception e) {
+            Grasscutter.getLogger().error(translate("messages.game.game_update_error"), e);
+        } finally {
+            this.tickingPlayers.remove(player);
+        }
+    }
+
+    private void reportStats() {
+        StringBuilder report = new StringBuilder();
+        for (TickStats stats : this.getStats()) {
+            report.append(' ').append(stats.report());
+        }
+        Grasscutter.getLogger().debug("Ticks:{}", report);
+    }
+
+    /**
+     * How long the ticks of one kind took, and how often they ran late.
+     */
+    public static final class TickStats {
+        @Getter private final String name;
+        @Getter private final long intervalNanos;
+
+        private final AtomicLong ticks = new AtomicLong();
+        private final AtomicLong overruns = new AtomicLong();
+        private final AtomicLong skipped = new AtomicLong();
+        private final AtomicLong totalNanos = new AtomicLong();
+        /* Since the last report. */
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        private TickStats(String name, long intervalMillis) {
+            this.name = name;
+            this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, intervalMillis));
+        }
+
+        private void record(long nanos) {
+            this.ticks.incrementAndGet();
+            this.totalNanos.addAndGet(nanos);
+            this.maxNanos.accumulateAndGet(nanos, Math::max);
+            if (nanos > this.intervalNanos) {
+                this.overruns.incrementAndGet();
+            }
+        }
+
+        private void skip() {
+            this.skipped.incrementAndGet();
+            this.overruns.incrementAndGet();
+        }
+
+        public long getTicks() {
+            return this.ticks.get();
+        }
+
+        /**
+         * @return How many ticks took longer than the interval, or were skipped because the previous one did.
+         */
+        public long getOverruns() {
+            return this.overruns.get();
+        }
+
+        public long getSkipped() {
+            return this.skipped.get();
+        }
+
+        public long getAverageNanos() {
+            long ticks = this.ticks.get();
+            return ticks == 0 ? 0 : this.totalNanos.get() / ticks;
+        }
+
+        private String report() {
+            return this.name + "[ticks=" + this.getTicks()
+                + ", overruns=" + this.getOverruns()
+                + ", skipped=" + this.getSkipped()
+                + ", avg=" + TimeUnit.NANOSECONDS.toMicros(this.getAverageNanos()) + "us"
+                + ", max=" + TimeUnit.NANOSECONDS.toMicros(this.maxNanos.getAndSet(0)) + "us]";
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package emu.grasscutter.server.game;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import emu.grasscutter.Grasscutter;
+import emu.grasscutter.config.ConfigContainer.TickStage;
+import lombok.Getter;
+
+/**
+ * Runs the stages of a tick, each at its own rate and within its own time budget.
+ * The owner calls {@link #tick()} at its base rate, which has to be at least as fast as its fastest stage;
+ * every call runs the stages which are due, most overdue first.
+ * A stage counts as due from half a base interval before its time, as ticks arrive with some jitter,
+ * so a stage at the base rate runs on every tick instead of now and then waiting for the next one.
+ * A stage which would not fit into what is left of the tick's budget is deferred to the next tick,
+ * so one slow stage holds up neither the others nor the owner's thread.
+ * Not thread-safe; the owner ticks it from one thread at a time.
+ */
+public final class TickPipeline {
+    private static final Comparator<Stage> BY_NEXT_RUN = Comparator.comparingLong(stage -> stage.nextRun);
+
+    private final long intervalNanos;
+    private final List<Stage> stages = new ArrayList<>();
+
+    /**
+     * @param intervalMillis The owner's tick interval, which is also how long one tick of all stages together may take.
+     */
+    public TickPipeline(long intervalMillis) {
+        this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, intervalMillis));
+    }
+
+    public TickPipeline addStage(String name, TickStage config, Runnable task) {
+        Stage stage = new Stage(name, config, task);
+        if (stage.intervalNanos < this.intervalNanos) {
+            Grasscutter.getLogger().warn("Tick stage {} is set to run {} times a second, more often than it is ticked; it will run on every tick instead.",
+                name, config.rate);
+            stage.intervalNanos = this.intervalNanos;
+        }
+        this.stages.add(stage);
+        return this;
+    }
+
+    public List<Stage> getStages() {
+        return List.copyOf(this.stages);
+    }
+
+    public void tick() {
+        long now = System.nanoTime();
+        long end = now + this.intervalNanos;
+        long dueBy = now + this.intervalNanos / 2;
+        boolean ranAny = false;
+
+        this.stages.sort(BY_NEXT_RUN);
+        for (Stage stage : this.stages) {
+            if (stage.nextRun > dueBy) {
+                break;  // Sorted, so nothing after it is due either.
+            }
+            // The first stage always runs, so even a stage larger than the whole budget gets its turn.
+            if (ranAny && System.nanoTime() + stage.getEstimateNanos() > end) {
+                stage.deferrals++;
+                continue;
+            }
+            stage.run();
+            ranAny = true;
+        }
+    }
+
+    public static final class Stage {
+        @Getter private final String name;
+        private long intervalNanos;
+        private final long budgetNanos;
+        private final Runnable task;
+
+        private long nextRun = System.nanoTime();
+        private long lastNanos = 0;
+
+        @Getter private long runs = 0;
+        /* Runs which took longer than the budget. */
+        @Getter private long overruns = 0;
+        /* Times the stage was due but had to wait for the next tick. */
+        @Getter private long deferrals = 0;
+
+        private Stage(String name, TickStage config, Runnable task) {
+            this.name = name;
+            this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / Math.max(config.rate, 0.001f));
+            this.budgetNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(config.budget, 0));
+            this.task = task;
+        }
+
+        /**
+         * How long the next run is expected to take: the budget, or longer if the last run overran it.
+         */
+        private long getEstimateNanos() {
+            return Math.max(this.budgetNanos, this.lastNanos);
+        }
+
+        private void run() {
+            long start = System.nanoTime();
+            try {
+                this.task.run();
+            } catch (Exception e) {
+                Grasscutter.getLogger().error("Error running tick stage " + this.name + ".", e);
+            }
+            this.lastNanos = System.nanoTime() - start;
+
+            this.runs++;
+            if (this.lastNanos > this.budgetNanos) {
+                this.overruns++;
+            }
+            // Runs which were missed are dropped rather than made up for all at once.
+            this.nextRun = Math.max(this.nextRun + this.intervalNanos, start);
+        }
+    }
+}
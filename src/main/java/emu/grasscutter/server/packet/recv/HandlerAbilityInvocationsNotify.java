@@ -16,13 +16,20 @@ import emu.grasscutter.server.packet.send.PacketSceneEntityDisappearNotify;
 import emu.grasscutter.utils.Position;
 import emu.grasscutter.utils.Utils;
 import it.unimi.dsi.fastutil.ints.Int2FloatOpenHashMap;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 
 @Opcodes(PacketOpcodes.AbilityInvocationsNotify)
 public class HandlerAbilityInvocationsNotify extends PacketHandler {
 	
 	@Override
 	public void handle(GameSession session, byte[] header, byte[] payload) throws Exception {
-		AbilityInvocationsNotify notif = AbilityInvocationsNotify.parseFrom(payload);
+		this.handle(session, Unpooled.wrappedBuffer(header), Unpooled.wrappedBuffer(payload));
+	}
+
+	@Override
+	public void handle(GameSession session, ByteBuf header, ByteBuf payload) throws Exception {
+		AbilityInvocationsNotify notif = AbilityInvocationsNotify.parseFrom(payload.nioBuffer());
 
 		Player player = session.getPlayer();
 		for (AbilityInvokeEntry entry : notif.getInvokesList()) {
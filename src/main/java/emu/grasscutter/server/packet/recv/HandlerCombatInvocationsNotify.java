@@ -16,10 +16,13 @@ import emu.grasscutter.net.packet.PacketHandler;
 import emu.grasscutter.net.proto.MotionInfoOuterClass.MotionInfo;
 import emu.grasscutter.net.proto.MotionStateOuterClass.MotionState;
 import emu.grasscutter.net.proto.PlayerDieTypeOuterClass;
+import emu.grasscutter.server.event.Event;
 import emu.grasscutter.server.event.entity.EntityMoveEvent;
 import emu.grasscutter.server.game.GameSession;
 import emu.grasscutter.server.packet.send.PacketEntityFightPropUpdateNotify;
 import emu.grasscutter.utils.Position;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 
 @Opcodes(PacketOpcodes.CombatInvocationsNotify)
 public class HandlerCombatInvocationsNotify extends PacketHandler {
@@ -30,7 +33,12 @@ public class HandlerCombatInvocationsNotify extends PacketHandler {
 
     @Override
     public void handle(GameSession session, byte[] header, byte[] payload) throws Exception {
-        CombatInvocationsNotify notif = CombatInvocationsNotify.parseFrom(payload);
+        this.handle(session, Unpooled.wrappedBuffer(header), Unpooled.wrappedBuffer(payload));
+    }
+
+    @Override
+    public void handle(GameSession session, ByteBuf header, ByteBuf payload) throws Exception {
+        CombatInvocationsNotify notif = CombatInvocationsNotify.parseFrom(payload.nioBuffer());
         for (CombatInvokeEntry entry : notif.getInvokeListList()) {
             // Handle combat invoke
             switch (entry.getArgumentType()) {
@@ -59,12 +67,16 @@ public class HandlerCombatInvocationsNotify extends PacketHandler {
                         MotionState motionState = motionInfo.getState();
 
                         // Call entity move event.
-                        EntityMoveEvent event = new EntityMoveEvent(
-                            entity, new Position(motionInfo.getPos()),
-                            new Position(motionInfo.getRot()), motionState);
-                        event.call();
+                        Position position = new Position(motionInfo.getPos());
+                        Position rotation = new Position(motionInfo.getRot());
+                        if (Event.hasListeners(EntityMoveEvent.class)) {
+                            EntityMoveEvent event = new EntityMoveEvent(entity, position, rotation, motionState);
+                            event.call();
+                            position = event.getPosition();
+                            rotation = event.getRotation();
+                        }
 
-                        entity.move(event.getPosition(), event.getRotation());
+                        entity.move(position, rotation);
                         entity.setLastMoveSceneTimeMs(moveInfo.getSceneTime());
                         entity.setLastMoveReliableSeq(moveInfo.getReliableSeq());
                         entity.setMotionState(motionState);
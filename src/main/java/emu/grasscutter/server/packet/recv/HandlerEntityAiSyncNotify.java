@@ -6,13 +6,20 @@ import emu.grasscutter.net.proto.EntityAiSyncNotifyOuterClass.EntityAiSyncNotify
 import emu.grasscutter.net.packet.PacketHandler;
 import emu.grasscutter.server.game.GameSession;
 import emu.grasscutter.server.packet.send.PacketEntityAiSyncNotify;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 
 @Opcodes(PacketOpcodes.EntityAiSyncNotify)
 public class HandlerEntityAiSyncNotify extends PacketHandler {
 	
 	@Override
 	public void handle(GameSession session, byte[] header, byte[] payload) throws Exception {
-		EntityAiSyncNotify notify = EntityAiSyncNotify.parseFrom(payload);
+		this.handle(session, Unpooled.wrappedBuffer(header), Unpooled.wrappedBuffer(payload));
+	}
+
+	@Override
+	public void handle(GameSession session, ByteBuf header, ByteBuf payload) throws Exception {
+		EntityAiSyncNotify notify = EntityAiSyncNotify.parseFrom(payload.nioBuffer());
 		
 		if (notify.getLocalAvatarAlertedMonsterListCount() > 0) {
 			session.getPlayer().getScene().broadcastPacket(new PacketEntityAiSyncNotify(notify));
@@ -1,5 +1,6 @@
 package emu.grasscutter.server.packet.recv;
 
+import emu.grasscutter.game.player.OfflineProfileCache;
 import emu.grasscutter.game.player.Player;
 import emu.grasscutter.net.packet.Opcodes;
 import emu.grasscutter.net.packet.PacketHandler;
@@ -16,10 +17,18 @@ public class HandlerGetFriendShowAvatarInfoReq extends PacketHandler {
 		GetFriendShowAvatarInfoReq req = GetFriendShowAvatarInfoReq.parseFrom(payload);
 
 		int targetUid = req.getUid();
-		Player targetPlayer = session.getServer().getPlayerByUid(targetUid, true);
+		Player targetPlayer = session.getServer().getPlayerByUid(targetUid);
 
-		if (targetPlayer.isShowAvatars()) {
-			session.send(new PacketGetFriendShowAvatarInfoRsp(targetUid, targetPlayer.getShowAvatarInfoList()));
+		if (targetPlayer != null) {
+			if (targetPlayer.isShowAvatars()) {
+				session.send(new PacketGetFriendShowAvatarInfoRsp(targetUid, targetPlayer.getShowAvatarInfoList()));
+			}
+			return;
+		}
+
+		OfflineProfileCache.Profile profile = session.getServer().getOfflineProfiles().get(targetUid);
+		if (profile != null && profile.isShowAvatars()) {
+			session.send(new PacketGetFriendShowAvatarInfoRsp(targetUid, profile.showAvatarInfoList()));
 		}
 	}
 
@@ -1,5 +1,6 @@
 package emu.grasscutter.server.packet.recv;
 
+import emu.grasscutter.game.player.OfflineProfileCache;
 import emu.grasscutter.game.player.Player;
 import emu.grasscutter.net.packet.Opcodes;
 import emu.grasscutter.net.packet.PacketHandler;
@@ -15,8 +16,16 @@ public class HandlerGetFriendShowNameCardInfoReq extends PacketHandler {
         var req = GetFriendShowNameCardInfoReqOuterClass.GetFriendShowNameCardInfoReq.parseFrom(payload);
 
         int targetUid = req.getUid();
-        Player target = session.getServer().getPlayerByUid(targetUid, true);
+        Player target = session.getServer().getPlayerByUid(targetUid);
 
-        session.send(new PacketGetFriendShowNameCardInfoRsp(targetUid, target.getShowNameCardInfoList()));
+        if (target != null) {
+            session.send(new PacketGetFriendShowNameCardInfoRsp(targetUid, target.getShowNameCardInfoList()));
+            return;
+        }
+
+        OfflineProfileCache.Profile profile = session.getServer().getOfflineProfiles().get(targetUid);
+        if (profile != null) {
+            session.send(new PacketGetFriendShowNameCardInfoRsp(targetUid, profile.showNameCardList()));
+        }
     }
 }
@@ -43,29 +43,52 @@ public class HandlerGetPlayerTokenReq extends PacketHandler {
         // Check if player object exists in server
         // NOTE: CHECKING MUST SITUATED HERE (BEFORE getPlayerByUid)! because to save firstly ,to load secondly !!!
         // TODO - optimize
-        boolean kicked = false;
         Player exists = Grasscutter.getGameServer().getPlayerByAccountId(account.getId());
-        if (exists != null) {
+        if (exists != null && exists.getSession() != session) {// No self-kicking
             GameSession existsSession = exists.getSession();
-            if (existsSession != session) {// No self-kicking
-                exists.onLogout();//must save immediately , or the below will load old data
-                existsSession.close();
-                Grasscutter.getLogger().warn("Player {} was kicked due to duplicated login", account.getUsername());
-                kicked = true;
-            }
+            // The old session is torn down on its own logic executor, the login carries on here afterwards
+            exists.getLogicExecutor().execute(() -> {
+                try {
+                    exists.onLogout();//must save immediately , or the below will load old data
+                    if (existsSession != null) {
+                        existsSession.close();
+                    }
+                    Grasscutter.getLogger().warn("Player {} was kicked due to duplicated login", account.getUsername());
+                } finally {
+                    this.afterSaved(session, req, account);
+                }
+            });
+            return;
         }
 
         //NOTE: If there are 5 online players, max count of player is 5,
         // a new client want to login by kicking one of them ,
         // I think it should be allowed
-        if (!kicked) {
-            // Max players limit
-            if (ACCOUNT.maxPlayer > -1 && Grasscutter.getGameServer().getPlayers().size() >= ACCOUNT.maxPlayer) {
-                session.close();
-                return;
-            }
+        // Max players limit
+        if (ACCOUNT.maxPlayer > -1 && Grasscutter.getGameServer().getPlayers().size() >= ACCOUNT.maxPlayer) {
+            session.close();
+            return;
+        }
+
+        this.afterSaved(session, req, account);
+    }
+
+    // The player is loaded once their last logout is stored, on this session's executor.
+    private void afterSaved(GameSession session, GetPlayerTokenReq req, Account account) {
+        Grasscutter.getGameServer().getLoginDataLoader().afterSaved(account.getId(), session.getLogicExecutor(),
+            () -> this.loginQuietly(session, req, account));
+    }
+
+    private void loginQuietly(GameSession session, GetPlayerTokenReq req, Account account) {
+        try {
+            this.login(session, req, account);
+        } catch (Exception e) {
+            Grasscutter.getLogger().error("Failed to log in " + account.getUsername(), e);
+            session.close();
         }
+    }
 
+    private void login(GameSession session, GetPlayerTokenReq req, Account account) throws Exception {
         // Call creation event.
         PlayerCreationEvent event = new PlayerCreationEvent(session, Player.class);
         event.call();
@@ -93,9 +116,11 @@ public class HandlerGetPlayerTokenReq extends PacketHandler {
             return;
         }
 
-        // Load player from database
-        player.loadFromDatabase();
+        // Load player from database, then finish logging in
+        Grasscutter.getGameServer().getLoginDataLoader().load(player, () -> this.onPlayerLoaded(session, req));
+    }
 
+    private void onPlayerLoaded(GameSession session, GetPlayerTokenReq req) {
         // Set session state
         session.setUseSecretKey(true);
         session.setState(SessionState.WAITING_FOR_LOGIN);
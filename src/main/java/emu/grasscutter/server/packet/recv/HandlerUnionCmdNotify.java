@@ -10,31 +10,33 @@ import emu.grasscutter.net.proto.UnionCmdOuterClass.UnionCmd;
 import emu.grasscutter.net.packet.PacketHandler;
 import emu.grasscutter.server.game.GameSession;
 import emu.grasscutter.Grasscutter.ServerDebugMode;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 
 @Opcodes(PacketOpcodes.UnionCmdNotify)
 public class HandlerUnionCmdNotify extends PacketHandler {
     @Override
     public void handle(GameSession session, byte[] header, byte[] payload) throws Exception {
-        UnionCmdNotify req = UnionCmdNotify.parseFrom(payload);
+        this.handle(session, Unpooled.wrappedBuffer(header), Unpooled.wrappedBuffer(payload));
+    }
+
+    @Override
+    public void handle(GameSession session, ByteBuf header, ByteBuf payload) throws Exception {
+        UnionCmdNotify req = UnionCmdNotify.parseFrom(payload.nioBuffer());
+        session.getPlayer().beginInvokes();
         for (UnionCmd cmd : req.getCmdListList()) {
             int cmdOpcode = cmd.getMessageId();
-            byte[] cmdPayload = cmd.getBody().toByteArray();
+            ByteBuf cmdPayload = Unpooled.wrappedBuffer(cmd.getBody().asReadOnlyByteBuffer());
             if (GAME_INFO.logPackets == ServerDebugMode.WHITELIST && SERVER.debugWhitelist.contains(cmd.getMessageId())) {
                 session.logPacket("RECV in Union", cmdOpcode, cmdPayload);
             } else if (GAME_INFO.logPackets ==  ServerDebugMode.BLACKLIST && !SERVER.debugBlacklist.contains(cmd.getMessageId())) {
                 session.logPacket("RECV in Union", cmdOpcode, cmdPayload);
             }
             //debugLevel ALL ignores UnionCmdNotify, so we will also ignore the contained opcodes
-            session.getServer().getPacketHandler().handle(session, cmd.getMessageId(), EMPTY_BYTE_ARRAY, cmd.getBody().toByteArray());
+            session.getServer().getPacketHandler().handle(session, cmd.getMessageId(), Unpooled.EMPTY_BUFFER, cmdPayload);
         }
 
-        // Update
-        session.getPlayer().getCombatInvokeHandler().update(session.getPlayer());
-        session.getPlayer().getAbilityInvokeHandler().update(session.getPlayer());
-
-        // Handle attack results last
-        while (!session.getPlayer().getAttackResults().isEmpty()) {
-            session.getPlayer().getScene().handleAttack(session.getPlayer().getAttackResults().poll());
-        }
+        // Update, entries from all notifies within one KCP interval are forwarded together, attack results are handled last
+        session.getPlayer().scheduleInvokeUpdate();
     }
 }
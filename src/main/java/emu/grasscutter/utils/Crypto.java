@@ -1,6 +1,10 @@
 package emu.grasscutter.utils;
 
 import java.io.File;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.file.Path;
 import java.security.KeyFactory;
 import java.security.PrivateKey;
@@ -13,9 +17,11 @@ import java.util.HashMap;
 import java.util.regex.Pattern;
 
 import emu.grasscutter.Grasscutter;
+import io.netty.buffer.ByteBuf;
 
 public final class Crypto {
     private static final SecureRandom secureRandom = new SecureRandom();
+    private static final VarHandle LONG_VIEW = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
 
     public static byte[] DISPATCH_KEY;
     public static byte[] DISPATCH_SEED;
@@ -60,10 +66,82 @@ public final class Crypto {
         }
     }
 
+    /**
+     * XORs the packet in place with the repeating key.
+     * Keys whose length is a multiple of 8 (every key the server uses) are applied
+     * a long at a time, anything that is left over is done byte by byte.
+     */
     public static void xor(byte[] packet, byte[] key) {
+        xor(packet, 0, packet.length, key);
+    }
+
+    public static void xor(byte[] packet, int offset, int length, byte[] key) {
+        try {
+            int i = 0;
+            if (key.length % Long.BYTES == 0) {
+                for (int k = 0; i <= length - Long.BYTES; i += Long.BYTES) {
+                    long value = (long) LONG_VIEW.get(packet, offset + i) ^ (long) LONG_VIEW.get(key, k);
+                    LONG_VIEW.set(packet, offset + i, value);
+                    if ((k += Long.BYTES) == key.length) k = 0;
+                }
+            }
+            for (; i < length; i++) {
+                packet[offset + i] ^= key[i % key.length];
+            }
+        } catch (Exception e) {
+            Grasscutter.getLogger().error("Crypto error.", e);
+        }
+    }
+
+    /**
+     * XORs the readable bytes of the buffer in place, without moving its indexes.
+     */
+    public static void xor(ByteBuf packet, byte[] key) {
+        int start = packet.readerIndex();
+        int length = packet.readableBytes();
+        if (packet.hasArray()) {
+            xor(packet.array(), packet.arrayOffset() + start, length, key);
+            return;
+        }
+
         try {
-            for (int i = 0; i < packet.length; i++) {
-                packet[i] ^= key[i % key.length];
+            int i = 0;
+            if (key.length % Long.BYTES == 0) {
+                for (int k = 0; i <= length - Long.BYTES; i += Long.BYTES) {
+                    packet.setLongLE(start + i, packet.getLongLE(start + i) ^ (long) LONG_VIEW.get(key, k));
+                    if ((k += Long.BYTES) == key.length) k = 0;
+                }
+            }
+            for (; i < length; i++) {
+                packet.setByte(start + i, packet.getByte(start + i) ^ key[i % key.length]);
+            }
+        } catch (Exception e) {
+            Grasscutter.getLogger().error("Crypto error.", e);
+        }
+    }
+
+    /**
+     * XORs the remaining bytes of the buffer in place, without moving its position.
+     */
+    public static void xor(ByteBuffer packet, byte[] key) {
+        int start = packet.position();
+        int length = packet.remaining();
+        if (packet.hasArray()) {
+            xor(packet.array(), packet.arrayOffset() + start, length, key);
+            return;
+        }
+
+        try {
+            ByteBuffer view = packet.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+            int i = 0;
+            if (key.length % Long.BYTES == 0) {
+                for (int k = 0; i <= length - Long.BYTES; i += Long.BYTES) {
+                    view.putLong(start + i, view.getLong(start + i) ^ (long) LONG_VIEW.get(key, k));
+                    if ((k += Long.BYTES) == key.length) k = 0;
+                }
+            }
+            for (; i < length; i++) {
+                view.put(start + i, (byte) (view.get(start + i) ^ key[i % key.length]));
             }
         } catch (Exception e) {
             Grasscutter.getLogger().error("Crypto error.", e);
@@ -1,5 +1,6 @@
 package emu.grasscutter.utils;
 
+import java.io.EOFException;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
@@ -9,12 +10,17 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
 import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
 import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 
 import emu.grasscutter.data.common.DynamicFloat;
 import emu.grasscutter.utils.JsonAdapters.*;
@@ -90,6 +96,76 @@ public final class JsonUtils {
         }
     }
 
+    /**
+     * Reads a JSON array one element at a time, so the whole list never has to be in memory.
+     * @param fileReader The reader to read the array from.
+     * @param classType The type of the elements.
+     * @param consumer Receives each element as soon as it is read.
+     */
+    public static <T> void streamList(Reader fileReader, Class<T> classType, Consumer<T> consumer) throws IOException {
+        TypeAdapter<T> adapter = gson.getAdapter(classType);
+        JsonReader reader = newReader(fileReader);
+        if (skipEmpty(reader)) return;
+
+        reader.beginArray();
+        while (reader.hasNext()) {
+            consumer.accept(adapter.read(reader));
+        }
+        reader.endArray();
+    }
+
+    public static <T> void streamList(Path filename, Class<T> classType, Consumer<T> consumer) throws IOException {
+        try (var fileReader = Files.newBufferedReader(filename, StandardCharsets.UTF_8)) {
+            streamList(fileReader, classType, consumer);
+        }
+    }
+
+    /**
+     * Reads a JSON object one entry at a time, so the whole map never has to be in memory.
+     * @param fileReader The reader to read the object from.
+     * @param valueType The type of the values.
+     * @param consumer Receives each key and value as soon as they are read.
+     */
+    public static <T> void streamMap(Reader fileReader, Class<T> valueType, BiConsumer<String, T> consumer) throws IOException {
+        TypeAdapter<T> adapter = gson.getAdapter(valueType);
+        JsonReader reader = newReader(fileReader);
+        if (skipEmpty(reader)) return;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String key = reader.nextName();
+            consumer.accept(key, adapter.read(reader));
+        }
+        reader.endObject();
+    }
+
+    public static <T> void streamMap(Path filename, Class<T> valueType, BiConsumer<String, T> consumer) throws IOException {
+        try (var fileReader = Files.newBufferedReader(filename, StandardCharsets.UTF_8)) {
+            streamMap(fileReader, valueType, consumer);
+        }
+    }
+
+    private static JsonReader newReader(Reader fileReader) {
+        JsonReader reader = gson.newJsonReader(fileReader);
+        reader.setLenient(true);  // Same as Gson.fromJson
+        return reader;
+    }
+
+    /* Empty documents and null read as nothing, like they do through Gson.fromJson. */
+    private static boolean skipEmpty(JsonReader reader) throws IOException {
+        JsonToken token;
+        try {
+            token = reader.peek();
+        } catch (EOFException ignored) {
+            return true;  // An empty file, which peek doesn't report as END_DOCUMENT on the first token.
+        }
+        if (token == JsonToken.NULL) {
+            reader.nextNull();
+            return true;
+        }
+        return token == JsonToken.END_DOCUMENT;
+    }
+
     /**
      * Safely JSON decodes a given string.
      * @param jsonData The JSON-encoded data.
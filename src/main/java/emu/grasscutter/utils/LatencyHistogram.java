@@ -0,0 +1,59 @@
+package emu.grasscutter.utils;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A lock-free latency histogram with power-of-two millisecond buckets.
+ * Bucket 0 holds samples below 1ms, bucket i samples in [2^(i-1), 2^i) ms,
+ * and the last bucket everything slower.
+ */
+public final class LatencyHistogram {
+    private static final int BUCKETS = 18; // Up to ~2 minutes.
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+    public void record(long nanos) {
+        long millis = TimeUnit.NANOSECONDS.toMillis(nanos);
+        int bucket = millis <= 0 ? 0 : Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(millis));
+        this.counts.incrementAndGet(bucket);
+    }
+
+    public long getCount() {
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            count += this.counts.get(i);
+        }
+        return count;
+    }
+
+    /**
+     * Gets the upper bound of the bucket which contains the given percentile.
+     * @param percentile The percentile, between 0 and 100.
+     * @return The latency in milliseconds, or 0 if nothing was recorded.
+     */
+    public long getPercentile(double percentile) {
+        long count = this.getCount();
+        if (count == 0) {
+            return 0;
+        }
+
+        long target = (long) Math.ceil(count * percentile / 100);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += this.counts.get(i);
+            if (seen >= target) {
+                return 1L << i;
+            }
+        }
+        return 1L << (BUCKETS - 1);
+    }
+
+    @Override
+    public String toString() {
+        return "n=" + this.getCount()
+            + " p50<=" + this.getPercentile(50) + "ms"
+            + " p90<=" + this.getPercentile(90) + "ms"
+            + " p99<=" + this.getPercentile(99) + "ms";
+    }
+}